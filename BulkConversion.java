@@ -0,0 +1,108 @@
+package numeric_classes;
+
+import java.nio.BufferOverflowException;
+import java.nio.DoubleBuffer;
+
+/**
+ * Bulk conversion of raw values between units of the same family.
+ * <p>
+ * Every method takes the cached converter from Unit.converterTo once and
+ * applies it on a plain counted loop, so nothing is allocated per element.
+ * The loop body is a multiplication (plus an addition, for the temperature
+ * scales) by loop-invariant values, which the JIT compiler turns into SIMD
+ * instructions where the CPU supports them.
+ * Unlike Quantity.setValue, no sign check is done on the values.
+ * @author      Geovani Lopes Dias <geovani.phy.dias @ gmail.com>
+ */
+public final class BulkConversion {
+    private BulkConversion() {}
+
+    /** The cached converter; a mismatch of families is counted, then thrown as Quantity.convertUnitTo does. */
+    private static UnitConverter converter(Unit from, Unit to){
+        if (!Unit.isConvertible(from, to)) {throw QuantityMetrics.failure(Quantity.Status.CONFLICTING_FAMILIES);}
+        return from.converterTo(to);}
+
+    private static void checkRange(int arrayLength, int offset, int length){
+        if (offset < 0 || length < 0 || offset > arrayLength - length)
+            {throw new ArrayIndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + length + ") out of bounds for length " + arrayLength);}}
+
+
+    // Array overloads:
+    /**
+    * Converts {@code length} values of src, starting at srcOffset, writing
+    * them on dst from dstOffset on. src and dst may be the same array.
+    *
+    * @param src: the values expressed in the from unit.
+    * @param from: the Unit of the source values.
+    * @param dst: the array receiving the converted values.
+    * @param to: the Unit the values shall be converted to.
+    */
+    public static void convert(double[] src, int srcOffset, Unit from, double[] dst, int dstOffset, Unit to, int length){
+        checkRange(src.length, srcOffset, length);
+        checkRange(dst.length, dstOffset, length);
+        UnitConverter converter = converter(from, to);
+        if (!QuantityMetrics.ENABLED) {apply(converter, src, srcOffset, dst, dstOffset, length); return;}
+        long start = QuantityMetrics.start();
+        apply(converter, src, srcOffset, dst, dstOffset, length);
+        QuantityMetrics.bulkConversion(from, to, length, start);}
+
+    private static void apply(UnitConverter converter, double[] src, int srcOffset, double[] dst, int dstOffset, int length){
+        if (converter.isIdentity()) {
+            if (src != dst || srcOffset != dstOffset) {System.arraycopy(src, srcOffset, dst, dstOffset, length);}
+            return;}
+        double factor = converter.getScale(), offset = converter.getOffset();
+        if (src == dst && dstOffset > srcOffset) { // Overlapping ranges, walk backwards
+            for (int i = length - 1; i >= 0; i--) {dst[dstOffset + i] = src[srcOffset + i] * factor + offset;}}
+        else if (offset == 0) {
+            for (int i = 0; i < length; i++) {dst[dstOffset + i] = src[srcOffset + i] * factor;}}
+        else {
+            for (int i = 0; i < length; i++) {dst[dstOffset + i] = src[srcOffset + i] * factor + offset;}}}
+
+    public static void convert(double[] src, Unit from, double[] dst, Unit to){
+        if (dst.length < src.length) {throw new ArrayIndexOutOfBoundsException("Destination shorter than source");}
+        convert(src, 0, from, dst, 0, to, src.length);}
+
+    /** In-place conversion of {@code length} values from offset on. */
+    public static void convert(double[] values, int offset, int length, Unit from, Unit to){
+        convert(values, offset, from, values, offset, to, length);}
+
+    /** In-place conversion of the whole array. */
+    public static void convert(double[] values, Unit from, Unit to){
+        convert(values, 0, from, values, 0, to, values.length);}
+
+
+    // DoubleBuffer overloads:
+    /**
+    * Converts the remaining values of src into dst.
+    * <p>
+    * As in DoubleBuffer.put(DoubleBuffer), both positions are advanced by
+    * the number of converted values. Heap buffers go through the array path.
+    *
+    * @throws BufferOverflowException if dst has less room than src has values.
+    */
+    public static void convert(DoubleBuffer src, Unit from, DoubleBuffer dst, Unit to){
+        int length = src.remaining();
+        if (dst.remaining() < length) {throw new BufferOverflowException();}
+        UnitConverter converter = converter(from, to);
+        int srcPos = src.position(), dstPos = dst.position();
+        if (src.hasArray() && dst.hasArray() && !dst.isReadOnly()) {
+            convert(src.array(), src.arrayOffset() + srcPos, from,
+                    dst.array(), dst.arrayOffset() + dstPos, to, length);}
+        else {
+            long start = QuantityMetrics.ENABLED ? QuantityMetrics.start() : 0;
+            for (int i = 0; i < length; i++) {dst.put(dstPos + i, converter.convert(src.get(srcPos + i)));}
+            if (QuantityMetrics.ENABLED) {QuantityMetrics.bulkConversion(from, to, length, start);}}
+        src.position(srcPos + length);
+        dst.position(dstPos + length);}
+
+    /** In-place conversion of the remaining values; the position is left untouched. */
+    public static void convert(DoubleBuffer values, Unit from, Unit to){
+        UnitConverter converter = converter(from, to);
+        int pos = values.position(), limit = values.limit();
+        if (values.hasArray()) {
+            convert(values.array(), values.arrayOffset() + pos, limit - pos, from, to);}
+        else {
+            long start = QuantityMetrics.ENABLED ? QuantityMetrics.start() : 0;
+            for (int i = pos; i < limit; i++) {values.put(i, converter.convert(values.get(i)));}
+            if (QuantityMetrics.ENABLED) {QuantityMetrics.bulkConversion(from, to, limit - pos, start);}}}
+}
@@ -0,0 +1,159 @@
+package numeric_classes;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Blocking client of a ConversionServer, over one connection.
+ * <p>
+ * convert sends a request and waits for its response. For throughput,
+ * send may be called several times before as many receive calls: the
+ * requests go out together and the server converts them together.
+ * A client is not thread-safe; give each thread its own.
+ * @author      Geovani Lopes Dias <geovani.phy.dias @ gmail.com>
+ */
+public final class ConversionClient implements AutoCloseable {
+    private final SocketChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocate(ConversionServer.BUFFER_SIZE), in = ByteBuffer.allocate(ConversionServer.BUFFER_SIZE);
+    private int nextId, expectedId, pending;
+
+    private ConversionClient(SocketChannel channel) {
+        this.channel = channel;
+        in.limit(0);
+    }
+
+    /** Connects to a server at a TCP or Unix-domain address. */
+    public static ConversionClient connect(SocketAddress address) throws IOException {
+        SocketChannel channel = SocketChannel.open(address);
+        if (address instanceof InetSocketAddress) {channel.setOption(StandardSocketOptions.TCP_NODELAY, true);}
+        return new ConversionClient(channel);}
+
+    /** Requests sent and not received yet. */
+    public int getPending() {return pending;}
+
+
+    // Conversion:
+    /** The values converted by the server, in a new array. */
+    public double[] convert(double[] values, Unit from, Unit to) throws IOException {
+        double[] converted = new double[values.length];
+        convert(values, 0, from, converted, 0, to, values.length);
+        return converted;}
+
+    /**
+    * Converts {@code length} values of src, starting at srcOffset, onto dst
+    * from dstOffset on, in requests of at most MAX_VALUES_PER_REQUEST values.
+    */
+    public void convert(double[] src, int srcOffset, Unit from, double[] dst, int dstOffset, Unit to, int length) throws IOException {
+        if (pending != 0) {throw new IllegalStateException(pending + " responses are still to be received.");}
+        int done = 0;
+        do {
+            int chunk = Math.min(ConversionServer.MAX_VALUES_PER_REQUEST, length - done);
+            send(src, srcOffset + done, chunk, from, to);
+            receive(dst, dstOffset + done);
+            done += chunk;}
+        while (done < length);}
+
+    /**
+    * Queues a request; it is written when the buffer fills, on flush, or
+    * on the next receive.
+    * <p>
+    * The server writes its responses as it goes, so the responses of the
+    * requests sent before a receive shall fit in the socket buffers (some
+    * hundreds of kilobytes): else both ends wait on each other.
+    *
+    * @return the request id.
+    */
+    public int send(double[] values, int offset, int length, Unit from, Unit to) throws IOException {
+        if (length < 0 || length > ConversionServer.MAX_VALUES_PER_REQUEST)
+            {throw new IllegalArgumentException("A request holds from 0 to " + ConversionServer.MAX_VALUES_PER_REQUEST + " values.");}
+        if (offset < 0 || offset > values.length - length) {throw new ArrayIndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + length + ") out of bounds for length " + values.length);}
+        if (out.remaining() < ConversionServer.CONVERT_HEADER + 8 * length) {flush();}
+        int id = nextId++;
+        out.put(ConversionServer.CONVERT).putInt(id).put((byte) from.ordinal()).put((byte) to.ordinal()).putInt(length);
+        out.asDoubleBuffer().put(values, offset, length);
+        out.position(out.position() + 8 * length);
+        pending++;
+        return id;}
+
+    public void flush() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {channel.write(out);}
+        out.clear();}
+
+    /**
+    * Reads the response of the oldest request sent, writing its values on
+    * dst from offset on.
+    *
+    * @return the number of values.
+    * @throws Quantity.ConflictingQuantityFamiliesException, Quantity.ImproperConvertionException
+    * as Quantity.convertUnitTo does; IOException if the server refused the request.
+    */
+    public int receive(double[] dst, int offset) throws IOException {
+        if (pending == 0) {throw new IllegalStateException("No request is pending.");}
+        if (out.position() > 0) {flush();}
+        fill(ConversionServer.RESPONSE_HEADER);
+        byte status = in.get();
+        int id = in.getInt(), count = in.getInt();
+        if (id != expectedId) {throw new IOException("Response " + id + " received, " + expectedId + " expected.");}
+        expectedId++;
+        pending--;
+        switch (status) {
+            case ConversionServer.OK: break;
+            case ConversionServer.CONFLICTING_FAMILIES: throw new Quantity.ConflictingQuantityFamiliesException();
+            case ConversionServer.IMPROPER_CONVERSION: throw new Quantity.ImproperConvertionException();
+            case ConversionServer.UNKNOWN_UNIT: throw new IOException("The server does not know one of the units of request " + id + ".");
+            default: throw new IOException("The server refused request " + id + " (status " + status + ").");}
+        if (offset < 0 || offset > dst.length - count) {throw new ArrayIndexOutOfBoundsException("No room for " + count + " values at " + offset);}
+        fill(8 * count);
+        in.asDoubleBuffer().get(dst, offset, count);
+        in.position(in.position() + 8 * count);
+        return count;}
+
+    /**
+    * The names of the server's units, by ordinal; to check that it was built
+    * with the same Unit layout.
+    */
+    public String[] fetchUnitNames() throws IOException {
+        if (pending != 0) {throw new IllegalStateException(pending + " responses are still to be received.");}
+        out.put(ConversionServer.UNITS).putInt(nextId++);
+        flush();
+        fill(ConversionServer.RESPONSE_HEADER);
+        byte status = in.get();
+        int id = in.getInt(), count = in.getInt();
+        if (id != expectedId) {throw new IOException("Response " + id + " received, " + expectedId + " expected.");}
+        expectedId++;
+        if (status != ConversionServer.OK) {throw new IOException("The server refused the unit request " + id + " (status " + status + ").");}
+        String[] names = new String[count];
+        for (int i = 0; i < names.length; i++) {
+            fill(1);
+            in.get(); // Family ordinal
+            names[i] = readString();
+            readString();} // Symbol
+        return names;}
+
+    private String readString() throws IOException {
+        fill(2);
+        int length = in.getShort() & 0xFFFF;
+        fill(length);
+        String string = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return string;}
+
+    /** Reads until at least bytes are buffered. */
+    private void fill(int bytes) throws IOException {
+        if (in.remaining() >= bytes) {return;}
+        in.compact();
+        while (in.position() < bytes) {
+            if (channel.read(in) < 0) {throw new EOFException("The server closed the connection.");}}
+        in.flip();}
+
+
+    @Override
+    public void close() throws IOException {channel.close();}
+}
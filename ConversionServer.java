@@ -0,0 +1,291 @@
+package numeric_classes;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Embeddable server converting batches of values for clients in any language,
+ * over a local TCP or Unix-domain socket.
+ * <p>
+ * The protocol is binary, big-endian (network order), and pipelined: a
+ * client may send many requests before reading the responses, which come
+ * back in the request order.
+ * <pre>
+ * CONVERT request:  byte 1, int id, byte fromOrdinal, byte toOrdinal, int count, double[count]
+ * UNITS request:    byte 2, int id
+ * CONVERT response: byte status, int id, int count, double[count] (count is 0 unless status is OK)
+ * UNITS response:   byte status, int id, int unitCount, then per Unit, in ordinal order:
+ *                   byte familyOrdinal, short length, UTF-8 name, short length, UTF-8 symbol
+ * </pre>
+ * Units are given by their Unit ordinal; clients map their symbols to
+ * ordinals once, through a UNITS request. A request holds at most
+ * MAX_VALUES_PER_REQUEST values; a malformed one gets a BAD_REQUEST
+ * response and the connection is closed.
+ * <p>
+ * Each connection is served by its own thread (a virtual thread on JDK 21
+ * and later, else a pooled platform thread). The requests already received
+ * on a connection are handled together, and runs of requests for the same
+ * unit pair are converted by a single BulkConversion call. The number of
+ * values being converted at once, over all connections, is bounded: when
+ * it is reached, connections stop reading, so TCP flow control holds the
+ * clients back. The number of connections is bounded as well.
+ * @author      Geovani Lopes Dias <geovani.phy.dias @ gmail.com>
+ */
+public final class ConversionServer implements AutoCloseable {
+    public static final int MAX_VALUES_PER_REQUEST = 1 << 14;
+    public static final int DEFAULT_MAX_CONNECTIONS = 1024, DEFAULT_MAX_IN_FLIGHT_VALUES = 1 << 20;
+
+    // Protocol:
+    static final byte CONVERT = 1, UNITS = 2;
+    static final byte OK = 0, CONFLICTING_FAMILIES = 1, IMPROPER_CONVERSION = 2, UNKNOWN_UNIT = 3, BAD_REQUEST = 4;
+    static final int CONVERT_HEADER = 11, RESPONSE_HEADER = 9;
+    static final int BUFFER_SIZE = CONVERT_HEADER + 8 * MAX_VALUES_PER_REQUEST;
+
+    private static final int MAX_FRAMES = 1024; // Requests handled together, at most
+    private static final long MIN_ACCEPT_BACKOFF_MILLIS = 10, MAX_ACCEPT_BACKOFF_MILLIS = 1000;
+    private static final Unit[] UNITS_BY_ORDINAL = Unit.values();
+    private static final byte[] UNIT_TABLE = unitTable();
+
+    private static byte[] unitTable(){
+        ByteBuffer table = ByteBuffer.allocate(4 + UNITS_BY_ORDINAL.length * 260);
+        table.putInt(UNITS_BY_ORDINAL.length);
+        for (Unit unit : UNITS_BY_ORDINAL) {
+            byte[] name = unit.name().getBytes(StandardCharsets.UTF_8), symbol = unit.getSymbol().getBytes(StandardCharsets.UTF_8);
+            table.put((byte) unit.getFamily().ordinal())
+                 .putShort((short) name.length).put(name)
+                 .putShort((short) symbol.length).put(symbol);}
+        byte[] bytes = new byte[table.position()];
+        table.flip().get(bytes);
+        return bytes;}
+
+
+    private final ServerSocketChannel server;
+    private final SocketAddress address;
+    private final ExecutorService connections;
+    private final Semaphore connectionPermits, inFlight;
+    private final int maxInFlightValues;
+    private final Set<SocketChannel> open = ConcurrentHashMap.newKeySet();
+    private final LongAdder requests = new LongAdder(), values = new LongAdder(), bulkCalls = new LongAdder();
+    private final Thread acceptor;
+    private volatile boolean closed;
+
+    private ConversionServer(ServerSocketChannel server, int maxConnections, int maxInFlightValues) throws IOException {
+        this.server = server;
+        this.address = server.getLocalAddress();
+        this.connections = connectionExecutor();
+        this.connectionPermits = new Semaphore(maxConnections);
+        this.inFlight = new Semaphore(maxInFlightValues, true);
+        this.maxInFlightValues = maxInFlightValues;
+        this.acceptor = new Thread(this::accept, "conversion-server-acceptor");
+        this.acceptor.setDaemon(true);
+    }
+
+    // Static factory methods:
+    public static ConversionServer start(SocketAddress address) throws IOException {
+        return start(address, DEFAULT_MAX_CONNECTIONS, DEFAULT_MAX_IN_FLIGHT_VALUES);}
+
+    /**
+    * Binds the address and starts accepting connections.
+    *
+    * @param address: an InetSocketAddress (port 0 picks a free port, see
+    * getAddress) or a UnixDomainSocketAddress.
+    * @param maxInFlightValues: values converted at once over all the
+    * connections; raised to the values of a full request if lower.
+    */
+    public static ConversionServer start(SocketAddress address, int maxConnections, int maxInFlightValues) throws IOException {
+        if (maxConnections < 1) {throw new IllegalArgumentException("At least one connection shall be allowed.");}
+        ServerSocketChannel server = (address instanceof UnixDomainSocketAddress)
+                ? ServerSocketChannel.open(StandardProtocolFamily.UNIX) : ServerSocketChannel.open();
+        try {server.bind(address);}
+        catch (IOException e) {server.close(); throw e;}
+        ConversionServer conversionServer = new ConversionServer(server, maxConnections,
+                Math.max(maxInFlightValues, BUFFER_SIZE / 8));
+        conversionServer.acceptor.start();
+        return conversionServer;}
+
+    /** One virtual thread per task where the JDK has them (21+), else a cached pool of daemon threads. */
+    private static ExecutorService connectionExecutor(){
+        try {return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);}
+        catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "conversion-server-connection");
+                thread.setDaemon(true);
+                return thread;});}}
+
+
+    // Getters:
+    /** The bound address, with the actual port when 0 was asked. */
+    public SocketAddress getAddress() {return address;}
+    public int getMaxInFlightValues() {return maxInFlightValues;}
+    public int getOpenConnections() {return open.size();}
+    public long getRequests() {return requests.sum();}
+    public long getValues() {return values.sum();}
+    /** BulkConversion calls made; below getRequests when requests were merged. */
+    public long getBulkCalls() {return bulkCalls.sum();}
+
+
+    // Serving:
+    /**
+    * Accepts until closed. A failed accept (as when the process is out of
+    * file descriptors) is retried after a pause, doubled on each failure in
+    * a row, so the acceptor does not spin on it.
+    */
+    private void accept(){
+        long backoff = 0;
+        while (!closed) {
+            try {
+                if (backoff > 0) {Thread.sleep(backoff);}
+                connectionPermits.acquire();
+                SocketChannel channel;
+                try {channel = server.accept();}
+                catch (IOException e) {connectionPermits.release(); throw e;}
+                backoff = 0;
+                if (channel.getRemoteAddress() instanceof InetSocketAddress) {channel.setOption(StandardSocketOptions.TCP_NODELAY, true);}
+                open.add(channel);
+                connections.execute(() -> serve(channel));}
+            catch (InterruptedException | ClosedChannelException e) {return;}
+            catch (IOException e) {
+                if (closed) {return;}
+                backoff = Math.min(MAX_ACCEPT_BACKOFF_MILLIS, Math.max(MIN_ACCEPT_BACKOFF_MILLIS, 2 * backoff));}}}
+
+    private void serve(SocketChannel channel){
+        try (channel) {new Connection(channel).run();}
+        catch (IOException e) {} // The client went away
+        catch (InterruptedException e) {Thread.currentThread().interrupt();}
+        finally {
+            open.remove(channel);
+            connectionPermits.release();}}
+
+    /**
+     * The state of one connection: its buffers and the requests of the batch
+     * being handled.
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private final ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE), out = ByteBuffer.allocate(BUFFER_SIZE);
+        private final double[] batch = new double[BUFFER_SIZE / 8];
+        private final byte[] ops = new byte[MAX_FRAMES], statuses = new byte[MAX_FRAMES], froms = new byte[MAX_FRAMES], tos = new byte[MAX_FRAMES];
+        private final int[] ids = new int[MAX_FRAMES], starts = new int[MAX_FRAMES], counts = new int[MAX_FRAMES];
+
+        private Connection(SocketChannel channel) {this.channel = channel;}
+
+        private void run() throws IOException, InterruptedException {
+            while (true) {
+                in.flip();
+                int frames = parse();
+                if (frames < 0) {return;} // Malformed: answered, then closed
+                if (frames > 0) {
+                    convert(frames);
+                    respond(frames);}
+                in.compact();
+                if (frames < MAX_FRAMES && channel.read(in) < 0) {return;}}} // Else complete requests may be left
+
+        /** Reads the complete requests at hand into the batch; -1 on a malformed one. */
+        private int parse() throws IOException {
+            int frames = 0, valueCount = 0;
+            while (frames < MAX_FRAMES && in.remaining() >= 5) {
+                int frameStart = in.position();
+                byte op = in.get();
+                int id = in.getInt();
+                if (op == UNITS) {ops[frames] = op; ids[frames] = id; statuses[frames] = OK; counts[frames++] = 0; continue;}
+                if (op != CONVERT) {return reject(id);}
+                if (in.remaining() < 6) {in.position(frameStart); break;}
+                int from = in.get() & 0xFF, to = in.get() & 0xFF, count = in.getInt();
+                if (count < 0 || count > MAX_VALUES_PER_REQUEST) {return reject(id);}
+                if (in.remaining() < 8 * count) {in.position(frameStart); break;}
+
+                ops[frames] = op; ids[frames] = id; froms[frames] = (byte) from; tos[frames] = (byte) to;
+                statuses[frames] = check(from, to);
+                if (statuses[frames] == OK) {
+                    starts[frames] = valueCount;
+                    counts[frames] = count;
+                    in.asDoubleBuffer().get(batch, valueCount, count);
+                    valueCount += count;}
+                else {counts[frames] = 0;}
+                in.position(in.position() + 8 * count);
+                frames++;}
+            return frames;}
+
+        private int reject(int id) throws IOException {
+            out.clear();
+            out.put(BAD_REQUEST).putInt(id).putInt(0).flip();
+            while (out.hasRemaining()) {channel.write(out);}
+            return -1;}
+
+        private byte check(int from, int to){
+            if (from >= UNITS_BY_ORDINAL.length || to >= UNITS_BY_ORDINAL.length) {return UNKNOWN_UNIT;}
+            Unit fromUnit = UNITS_BY_ORDINAL[from], toUnit = UNITS_BY_ORDINAL[to];
+            if (fromUnit == toUnit) {return OK;}
+            if (!Unit.isConvertible(fromUnit, toUnit)) {return CONFLICTING_FAMILIES;}
+            if (fromUnit == Unit.DIMENSIONLESS) {return IMPROPER_CONVERSION;}
+            return OK;}
+
+        /** Converts the values of the batch, one BulkConversion call per run of the same unit pair. */
+        private void convert(int frames) throws InterruptedException {
+            int total = 0;
+            for (int f = 0; f < frames; f++) {total += counts[f];}
+            if (total == 0) {return;}
+            inFlight.acquire(total);
+            try {
+                int f = 0;
+                while (f < frames) {
+                    if (ops[f] != CONVERT || statuses[f] != OK) {f++; continue;}
+                    int runStart = starts[f], runLength = 0;
+                    byte from = froms[f], to = tos[f];
+                    for (; f < frames && ops[f] == CONVERT && statuses[f] == OK && froms[f] == from && tos[f] == to; f++) {
+                        runLength += counts[f];}
+                    BulkConversion.convert(batch, runStart, runLength, UNITS_BY_ORDINAL[from], UNITS_BY_ORDINAL[to]);
+                    bulkCalls.increment();}}
+            finally {inFlight.release(total);}
+            values.add(total);}
+
+        private void respond(int frames) throws IOException {
+            out.clear();
+            for (int f = 0; f < frames; f++) {
+                if (ops[f] == UNITS) {
+                    room(RESPONSE_HEADER + UNIT_TABLE.length - 4);
+                    out.put(OK).putInt(ids[f]).put(UNIT_TABLE);}
+                else {
+                    room(RESPONSE_HEADER + 8 * counts[f]);
+                    out.put(statuses[f]).putInt(ids[f]).putInt(counts[f]);
+                    out.asDoubleBuffer().put(batch, starts[f], counts[f]);
+                    out.position(out.position() + 8 * counts[f]);}}
+            requests.add(frames);
+            flush();}
+
+        private void room(int bytes) throws IOException {if (out.remaining() < bytes) {flush(); out.clear();}}
+
+        private void flush() throws IOException {
+            out.flip();
+            while (out.hasRemaining()) {channel.write(out);}}
+    }
+
+
+    /** Stops accepting, closes every connection and, for a Unix-domain socket, deletes its file. */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        server.close();
+        acceptor.interrupt();
+        for (SocketChannel channel : open) {
+            try {channel.close();}
+            catch (IOException e) {}}
+        connections.shutdownNow();
+        if (address instanceof UnixDomainSocketAddress) {Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());}}
+}
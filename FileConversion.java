@@ -0,0 +1,273 @@
+package numeric_classes;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Streaming conversion of "value,unitSymbol" files (CSV, TSV and the like).
+ * <p>
+ * The input is memory-mapped chunk by chunk, each chunk cut at a line end.
+ * Chunks are parsed in place and converted by worker threads, and their
+ * output is written in the input order through a FileChannel. Only a few
+ * chunks are in flight at a time, so memory stays bounded whatever the
+ * size of the file.
+ * <p>
+ * Each row is converted to the target Unit of its family. Rows are
+ * rejected (and counted) when their unit is unknown, when their family has
+ * no target, or when they cannot be read at all.
+ * <p>
+ * The TEXT output writes "value,symbol" rows, each value with the fewest
+ * digits that parse back to the same double (as Double.toString does),
+ * unless a number of fraction digits is asked with withPrecision. The BINARY output writes
+ * 9-byte records: the value as a little-endian double and the target Unit
+ * ordinal as one byte.
+ * @author      Geovani Lopes Dias <geovani.phy.dias @ gmail.com>
+ */
+public final class FileConversion {
+    public enum OutputFormat {TEXT, BINARY};
+
+    private static final int DEFAULT_CHUNK_SIZE = 16 << 20;
+    private static final int ROUND_TRIP = -1; // The precision of the shortest exact TEXT output
+    private static final Unit[] UNITS = Unit.values();
+    private static final byte[][] SYMBOLS = new byte[UNITS.length][];
+    static {
+        for (Unit unit : UNITS) {SYMBOLS[unit.ordinal()] = unit.getSymbol().getBytes(StandardCharsets.UTF_8);}
+    }
+
+    /**
+     * Counts of a finished conversion.
+     */
+    public static final class Report {
+        private final long rows, unknownUnits, mismatchedFamilies, malformedRows, nanos;
+
+        private Report(long rows, long unknownUnits, long mismatchedFamilies, long malformedRows, long nanos) {
+            this.rows = rows;
+            this.unknownUnits = unknownUnits;
+            this.mismatchedFamilies = mismatchedFamilies;
+            this.malformedRows = malformedRows;
+            this.nanos = nanos;
+        }
+
+        /** Rows converted and written. */
+        public long getRows() {return rows;}
+        public long getUnknownUnits() {return unknownUnits;}
+        public long getMismatchedFamilies() {return mismatchedFamilies;}
+        public long getMalformedRows() {return malformedRows;}
+        public long getRejectedRows() {return unknownUnits + mismatchedFamilies + malformedRows;}
+        public long getNanos() {return nanos;}
+        public double getRowsPerSecond() {return nanos == 0 ? 0 : (rows + getRejectedRows()) * 1e9 / nanos;}
+
+        @Override
+        public String toString() {
+            return rows + " rows converted, " + getRejectedRows() + " rejected (" + unknownUnits + " unknown unit, "
+                    + mismatchedFamilies + " mismatched family, " + malformedRows + " malformed), "
+                    + Math.round(getRowsPerSecond()) + " rows/s";}
+    }
+
+
+    private final Unit[] targets; // Indexed by QuantityFamily ordinal, null when rejected
+    private final QuantityFamily hint; // The single target family, if so
+    private final char delimiter;
+    private final int threads, chunkSize, precision;
+    private final OutputFormat outputFormat;
+
+    private FileConversion(Unit[] targets, char delimiter, int threads, int chunkSize, int precision, OutputFormat outputFormat) {
+        this.targets = targets;
+        QuantityFamily single = null;
+        int count = 0;
+        for (Unit target : targets) {if (target != null) {single = target.getFamily(); count++;}}
+        this.hint = count == 1 ? single : null;
+        this.delimiter = delimiter;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+        this.precision = precision;
+        this.outputFormat = outputFormat;
+    }
+
+    // Static factory methods and copy methods:
+    /** Converts every row to the SI unit of its family. */
+    public static FileConversion toSI(){
+        Unit[] targets = new Unit[QuantityFamily.values().length];
+        for (QuantityFamily family : QuantityFamily.values()) {targets[family.ordinal()] = Unit.standardOf(family);}
+        return new FileConversion(targets, ',', Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE, ROUND_TRIP, OutputFormat.TEXT);}
+
+    /** Converts every row to the given unit; rows of other families are rejected. */
+    public static FileConversion to(Unit target){
+        Unit[] targets = new Unit[QuantityFamily.values().length];
+        targets[target.getFamily().ordinal()] = target;
+        return new FileConversion(targets, ',', Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE, ROUND_TRIP, OutputFormat.TEXT);}
+
+    /** Converts every row to the unit given for its family, or else to SI. */
+    public static FileConversion to(Map<QuantityFamily, Unit> targetsByFamily){
+        FileConversion conversion = toSI();
+        for (Map.Entry<QuantityFamily, Unit> entry : targetsByFamily.entrySet()) {
+            if (entry.getValue().getFamily() != entry.getKey())
+                {throw new IllegalArgumentException("Unit and name families shall be the same: " + entry);}
+            conversion.targets[entry.getKey().ordinal()] = entry.getValue();}
+        return conversion;}
+
+    public FileConversion withDelimiter(char delimiter) {return new FileConversion(targets, delimiter, threads, chunkSize, precision, outputFormat);}
+    public FileConversion withOutputFormat(OutputFormat outputFormat) {return new FileConversion(targets, delimiter, threads, chunkSize, precision, outputFormat);}
+    /**
+    * Rounds the values of the TEXT output to at most this number of
+    * fraction digits (scientific notation is used for values too small to
+    * show). By default nothing is rounded.
+    */
+    public FileConversion withPrecision(int precision){
+        if (precision < 0 || precision > QuantityFormatter.MAX_PRECISION)
+            {throw new IllegalArgumentException("Precision shall be from 0 to " + QuantityFormatter.MAX_PRECISION + ": " + precision);}
+        return new FileConversion(targets, delimiter, threads, chunkSize, precision, outputFormat);}
+    public FileConversion withThreads(int threads){
+        if (threads < 1) {throw new IllegalArgumentException("At least one thread is needed: " + threads);}
+        return new FileConversion(targets, delimiter, threads, chunkSize, precision, outputFormat);}
+    public FileConversion withChunkSize(int chunkSize){
+        if (chunkSize < 1) {throw new IllegalArgumentException("Chunk size shall be positive: " + chunkSize);}
+        return new FileConversion(targets, delimiter, threads, chunkSize, precision, outputFormat);}
+
+
+    /**
+    * Converts the input file, writing (or overwriting) the output file.
+    *
+    * @return the counts of converted and rejected rows.
+    */
+    public Report convert(Path input, Path output) throws IOException {
+        long start = System.nanoTime();
+        long[] totals = new long[4];
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ArrayDeque<Future<Chunk>> inFlight = new ArrayDeque<>();
+            ByteBuffer probe = ByteBuffer.allocate(4096);
+            long size = in.size(), position = 0;
+            while (position < size) {
+                long end = lineEnd(in, Math.min(size, position + chunkSize), size, probe);
+                MappedByteBuffer region = in.map(FileChannel.MapMode.READ_ONLY, position, end - position);
+                inFlight.add(pool.submit(() -> new Chunk(this, region.limit()).convert(region)));
+                position = end;
+                if (inFlight.size() >= 2 * threads) {drain(inFlight.poll(), out, totals);}}
+            while (!inFlight.isEmpty()) {drain(inFlight.poll(), out, totals);}}
+        finally {pool.shutdownNow();}
+        return new Report(totals[0], totals[1], totals[2], totals[3], System.nanoTime() - start);}
+
+    /** The position just after the first '\n' from position on, or size. */
+    private static long lineEnd(FileChannel in, long position, long size, ByteBuffer probe) throws IOException {
+        while (position < size) {
+            probe.clear();
+            int read = in.read(probe, position);
+            if (read <= 0) {return size;}
+            for (int i = 0; i < read; i++) {if (probe.get(i) == '\n') {return position + i + 1;}}
+            position += read;}
+        return size;}
+
+    private static void drain(Future<Chunk> future, FileChannel out, long[] totals) throws IOException {
+        Chunk chunk;
+        try {chunk = future.get();}
+        catch (InterruptedException e) {Thread.currentThread().interrupt(); throw new IOException("Conversion interrupted", e);}
+        catch (ExecutionException e) {throw new IOException("Conversion failed", e.getCause());}
+        chunk.output.flip();
+        while (chunk.output.hasRemaining()) {out.write(chunk.output);}
+        totals[0] += chunk.rows; totals[1] += chunk.unknownUnits; totals[2] += chunk.mismatchedFamilies; totals[3] += chunk.malformedRows;}
+
+
+    /**
+     * One region of the input, parsed and converted by a worker thread.
+     */
+    private static final class Chunk {
+        private final FileConversion conversion;
+        private final QuantityFormatter formatter; // Null for the round-trip output
+        private final StringBuilder number = new StringBuilder(32);
+        private final UnitParser parser = new UnitParser();
+        private final UnitParser.Match match = new UnitParser.Match();
+        private char[] line = new char[256];
+        private CharBuffer lineView = CharBuffer.wrap(line);
+        private ByteBuffer output;
+        private long rows, unknownUnits, mismatchedFamilies, malformedRows;
+
+        private Chunk(FileConversion conversion, int inputSize) {
+            this.conversion = conversion;
+            this.formatter = (conversion.precision == ROUND_TRIP) ? null
+                    : new QuantityFormatter(conversion.precision, QuantityFormatter.Notation.AUTO, QuantityFormatter.Label.NONE, '.');
+            this.output = ByteBuffer.allocate(inputSize + 64).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        private Chunk convert(ByteBuffer input){
+            int limit = input.limit();
+            for (int i = 0; i < limit;) {
+                int eol = i;
+                while (eol < limit && input.get(eol) != '\n') {eol++;}
+                int end = (eol > i && input.get(eol - 1) == '\r') ? eol - 1 : eol;
+                if (end > i) {row(input, i, end);}
+                i = eol + 1;}
+            return this;}
+
+        private void row(ByteBuffer input, int from, int to){
+            int length = decode(input, from, to);
+            int start = 0, end = length;
+            while (start < end && isBlank(line[start])) {start++;}
+            if (start == end) {return;} // Blank line
+            int delimiter = start;
+            while (delimiter < end && line[delimiter] != conversion.delimiter) {delimiter++;}
+            if (delimiter == end) {malformedRows++; return;}
+
+            int valueEnd = delimiter, unitStart = delimiter + 1;
+            while (valueEnd > start && isBlank(line[valueEnd - 1])) {valueEnd--;}
+            while (unitStart < end && isBlank(line[unitStart])) {unitStart++;}
+            while (end > unitStart && isBlank(line[end - 1])) {end--;}
+            if (!parser.parseValue(lineView, start, valueEnd, match)) {malformedRows++; return;}
+            Unit unit = UnitParser.lookup(lineView, unitStart, end, conversion.hint);
+            if (unit == null) {unknownUnits++; return;}
+            Unit target = conversion.targets[unit.getFamily().ordinal()];
+            if (target == null) {mismatchedFamilies++; return;}
+
+            write(unit.converterTo(target).convert(match.getValue()), target);
+            rows++;}
+
+        private void write(double value, Unit target){
+            byte[] symbol = SYMBOLS[target.ordinal()];
+            if (output.remaining() < 64 + symbol.length) {
+                ByteBuffer larger = ByteBuffer.allocate(2 * output.capacity() + symbol.length).order(ByteOrder.LITTLE_ENDIAN);
+                output.flip();
+                output = larger.put(output);}
+            if (conversion.outputFormat == OutputFormat.BINARY) {
+                output.putDouble(value).put((byte) target.ordinal());}
+            else if (formatter == null) {
+                number.setLength(0);
+                number.append(value); // Shortest round-trip digits, with no String made
+                for (int i = 0; i < number.length(); i++) {output.put((byte) number.charAt(i));}
+                output.put((byte) conversion.delimiter).put(symbol).put((byte) '\n');}
+            else {
+                formatter.formatTo(value, Unit.DIMENSIONLESS, null, output); // Number only
+                output.put((byte) conversion.delimiter).put(symbol).put((byte) '\n');}}
+
+        /** UTF-8 decoding of input[from, to) into line; malformed bytes become U+FFFD. */
+        private int decode(ByteBuffer input, int from, int to){
+            if (line.length < to - from) {
+                line = new char[Math.max(to - from, 2 * line.length)];
+                lineView = CharBuffer.wrap(line);}
+            int length = 0;
+            for (int i = from; i < to;) {
+                int b = input.get(i++) & 0xFF;
+                if (b < 0x80) {line[length++] = (char) b;}
+                else if (b >= 0xC0 && b < 0xE0 && i < to) {
+                    line[length++] = (char) (((b & 0x1F) << 6) | (input.get(i++) & 0x3F));}
+                else if (b >= 0xE0 && b < 0xF0 && i + 1 < to) {
+                    line[length++] = (char) (((b & 0x0F) << 12) | ((input.get(i++) & 0x3F) << 6) | (input.get(i++) & 0x3F));}
+                else {line[length++] = '\ufffd';}}
+            return length;}
+
+        private static boolean isBlank(char c) {return c == ' ' || c == '\t';}
+    }
+}
@@ -1,7 +1,5 @@
 package numeric_classes;
 
-import java.text.DecimalFormat;
-
 /**
  * @author      Geovani Lopes Dias <geovani.phy.dias @ gmail.com>
  * @version     1.0
@@ -16,12 +14,44 @@ public class Quantity {
     private final boolean vector;
     
     // Exception classes:
-    private class ConflictingQuantityFamiliesException extends RuntimeException{
+    /**
+    * Whether the exceptions below skip filling their stack trace, which is
+    * most of the cost of a throw. Set with -Dnumeric_classes.stacklessExceptions=true
+    * when bad records are expected on the data path.
+    */
+    public static final boolean STACKLESS_EXCEPTIONS = Boolean.getBoolean("numeric_classes.stacklessExceptions");
+    
+    public static class ConflictingQuantityFamiliesException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
         public ConflictingQuantityFamiliesException() {super("Unit and name families shall be the same.");}
+        @Override public synchronized Throwable fillInStackTrace() {return STACKLESS_EXCEPTIONS ? this : super.fillInStackTrace();}
     }
-    private class ImproperConvertionException extends RuntimeException {
+    public static class ImproperConvertionException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
         public ImproperConvertionException() {super("There's no meaning in to convert a dimensionless quantity.");}
+        @Override public synchronized Throwable fillInStackTrace() {return STACKLESS_EXCEPTIONS ? this : super.fillInStackTrace();}
     }
+    public static class NegativeScalarException extends ArithmeticException {
+        private static final long serialVersionUID = 1L;
+        public NegativeScalarException() {super("A scalar quantity shouldn't be negative");}
+        @Override public synchronized Throwable fillInStackTrace() {return STACKLESS_EXCEPTIONS ? this : super.fillInStackTrace();}
+    }
+    
+    /**
+    * Outcome of the non-throwing methods (tryCreate, tryConvertUnitTo):
+    * OK, or the reason that would otherwise be thrown.
+    */
+    public enum Status {
+        OK, CONFLICTING_FAMILIES, IMPROPER_CONVERSION, NEGATIVE_SCALAR;
+        
+        /** The exception the throwing methods raise for this status. */
+        public RuntimeException toException(){
+            switch (this) {
+                case CONFLICTING_FAMILIES: return new ConflictingQuantityFamiliesException();
+                case IMPROPER_CONVERSION: return new ImproperConvertionException();
+                case NEGATIVE_SCALAR: return new NegativeScalarException();
+                default: throw new IllegalStateException("No exception for " + this);}}
+    };
     
     // Constructors and Static Factory Methods:
     public Quantity(double value, Unit unit, QuantityName name, boolean vector) {
@@ -32,6 +62,22 @@ public class Quantity {
         this.vector = vector;
         if (name.getFamily() != unit.getFamily()){throw new ConflictingQuantityFamiliesException();}
     }
+    /**
+    * Checks the arguments of a Quantity without throwing: the families of
+    * unit and name, and (as setValue does) the sign of scalars.
+    */
+    public static Status validate(double value, Unit unit, QuantityName name, boolean vector){
+        if (name.getFamily() != unit.getFamily()) {return Status.CONFLICTING_FAMILIES;}
+        if (isNegativeScalar(value, unit, vector)) {return Status.NEGATIVE_SCALAR;}
+        return Status.OK;}
+    
+    /** A new Quantity, or null when validate does not give OK. */
+    public static Quantity tryCreate(double value, Unit unit, QuantityName name, boolean vector){
+        return validate(value, unit, name, vector) == Status.OK ? new Quantity(value, unit, name, vector) : null;}
+    
+    private static boolean isNegativeScalar(double value, Unit unit, boolean vector){
+        return value < 0 & !vector & unit.getOffset() == 0;} // Relative scales, as Celsius, go below zero
+    
     // Physics constants:
     public static Quantity AsScalarGravity(){return new Quantity(9.81, Unit.METER_PER_SECOND_SQUARED, QuantityName.ACCELERATION, false);}
     public static Quantity AsVectorialGravity(){return new Quantity(-9.81, Unit.METER_PER_SECOND_SQUARED, QuantityName.ACCELERATION, true);}
@@ -50,6 +96,7 @@ public class Quantity {
     public static Quantity AsTimeInstant(double value){return new Quantity(value, Unit.SECOND, QuantityName.INSTANT, false);}
     public static Quantity AsSpeed(double value){return new Quantity(value, Unit.METER_PER_SECOND, QuantityName.SPEED, false);}
     public static Quantity AsMass(double value){return new Quantity(value, Unit.KILOGRAM, QuantityName.MASS, false);}
+    public static Quantity AsTemperature(double value){return new Quantity(value, Unit.KELVIN, QuantityName.TEMPERATURE, false);}
     public static Quantity AsSpringConstant(double value){return new Quantity(value, Unit.NEWTON_PER_METER, QuantityName.SPRING_CONSTANT, false);}
     public static Quantity AsFrictionConstant(double value){return new Quantity(value, Unit.DIMENSIONLESS, QuantityName.COEFFICIENT_OF_FRICTION, false);}
     public static Quantity AsEfficiencyNotPercentage(double value){
@@ -72,9 +119,58 @@ public class Quantity {
     // ...
     
     
+    // Dimensional arithmetic:
+    /**
+    * Multiplies two quantities.
+    * <p>
+    * The dimensions of both families are added as packed exponent vectors;
+    * the resulting family gives the result its SI unit and default name.
+    * Both values are taken to SI first. The result is a vector when exactly
+    * one of the operands is.
+    * 
+    * @throws ArithmeticException if no registered family, unit or name
+    * matches the resulting dimensions.
+    */
+    public Quantity multiply(Quantity other){
+        return derived(QuantityFamily.multiply(family.getDimensions(), other.family.getDimensions()),
+                this.toSI() * other.toSI(), this.isVector() ^ other.isVector());}
+    
+    /** Divides this quantity by another one, as multiply does with products. */
+    public Quantity divide(Quantity other){
+        double divisor = other.toSI();
+        if (divisor == 0) {throw new ArithmeticException("Division by a null quantity");}
+        return derived(QuantityFamily.divide(family.getDimensions(), other.family.getDimensions()),
+                this.toSI() / divisor, this.isVector() ^ other.isVector());}
+    
+    /** Raises this quantity to an integer power. */
+    public Quantity pow(int exponent){
+        return derived(QuantityFamily.pow(family.getDimensions(), exponent),
+                Math.pow(this.toSI(), exponent), this.isVector() && exponent % 2 != 0);}
+    
+    /**
+    * Adds a quantity of the same family, giving the sum in this quantity's
+    * unit, name and vector flag.
+    */
+    public Quantity add(Quantity other){
+        if (family != other.family) {throw new ConflictingQuantityFamiliesException();}
+        return new Quantity(this.getValue() + other.getUnit().converterTo(this.getUnit()).convert(other.getValue()),
+                this.getUnit(), this.name, this.isVector());}
+    
+    private double toSI() {return this.getValue()*this.getUnit().getConversionFactor() + this.getUnit().getOffset();}
+    
+    private static Quantity derived(long dimensions, double siValue, boolean vector){
+        QuantityFamily family = QuantityFamily.ofDimensions(dimensions);
+        if (family == null) {throw new ArithmeticException("No quantity family has the resulting dimensions.");}
+        Unit unit = (family == QuantityFamily.DIMENSIONLESS) ? Unit.DIMENSIONLESS : Unit.standardOf(family);
+        QuantityName name = QuantityName.defaultOf(family);
+        if (unit == null || name == null) {throw new ArithmeticException("The family " + family + " has no SI unit or name yet.");}
+        return new Quantity(siValue, unit, name, vector);}
+    
+    
     // Getters, setters and toString:
     public double getValue() {return value;}
     public Unit getUnit() {return unit;}
+    public QuantityName getName() {return name;}
     public String getUnitSymbol() {return unit.getSymbol();}
     public String getPTName() {return name.getPortugueseWriting();}
     public String getENName() {return name.getEnglishWriting();}
@@ -82,43 +178,49 @@ public class Quantity {
     
     public void setUnit(Unit unit) {this.unit = unit;}
     public void setValue(double value){
-        if (value < 0 & !this.isVector()){
-            throw new ArithmeticException("A scalar quantity shouldn't be negative");}
+        if (isNegativeScalar(value, this.getUnit(), this.isVector())){
+            throw new NegativeScalarException();}
         else {this.value = value;}}
     
     @Override
-    public String toString() {return new DecimalFormat("#.#").format(value) + " " + unit.getSymbol();}
+    public String toString() {return QuantityFormatter.DEFAULT.format(this);}
     
     
     /**
     * Converts a Quantity instance to a certain unit.
     * <p>
     * Received an instance, identifies its Unit attribute.
-    * Thereafter, it sets its value by multiplying (and/or dividing) it
-    * according to the unit needed.
+    * Thereafter, it sets its value through the cached converter between its
+    * unit and the unit needed (see Unit.converterTo).
     * Finally, the instance Unit attribute is setted as the unitNeeded parameter.
     * 
     * @param unitNeeded: the Unit object according to the Quantity
     * instance need to be converted.
     */
     public void convertUnitTo(Unit unitNeeded) throws RuntimeException{
-        if (this.getUnit() == unitNeeded){return;} // No conversion needed
-        if (this.getUnit().getFamily() != unitNeeded.getFamily())
-            {throw new ConflictingQuantityFamiliesException();}
-        if (this.getUnit() == Unit.DIMENSIONLESS)
-            {throw new ImproperConvertionException();}
-        
-        // Conditions of conversion:
-        boolean needToConvert_AnySystem_ToSIStandard = (
-                    this.getUnit().getSystem() != Unit.UnitSystem.International_Standard &&
-                    unitNeeded.getSystem() == Unit.UnitSystem.International_Standard),
-                needToConvert_ASIStandard_ToAnyOtherUnit = (
-                    this.getUnit().getSystem() == Unit.UnitSystem.International_Standard &&
-                    unitNeeded.getSystem() != Unit.UnitSystem.International_Standard);
+        Status status = this.tryConvertUnitTo(unitNeeded);
+        if (status != Status.OK) {throw status.toException();}}
+    
+    /**
+    * Converts as convertUnitTo does, but gives the failure as a Status
+    * instead of throwing; the instance is left untouched then.
+    */
+    public Status tryConvertUnitTo(Unit unitNeeded){
+        if (!QuantityMetrics.ENABLED) {return convert(unitNeeded);}
+        long start = QuantityMetrics.start();
+        Unit from = this.getUnit();
+        Status status = convert(unitNeeded);
+        QuantityMetrics.conversion(from, unitNeeded, status, start);
+        return status;}
+    
+    private Status convert(Unit unitNeeded){
+        if (this.getUnit() == unitNeeded){return Status.OK;} // No conversion needed
+        if (!Unit.isConvertible(this.getUnit(), unitNeeded)) {return Status.CONFLICTING_FAMILIES;}
+        if (this.getUnit() == Unit.DIMENSIONLESS) {return Status.IMPROPER_CONVERSION;}
         
-        // Conversion according to conditions:
-        if (needToConvert_AnySystem_ToSIStandard){this.setValue(this.getValue()*this.getUnit().getConversionFactor());}
-        else if (needToConvert_ASIStandard_ToAnyOtherUnit){this.setValue(this.getValue()/unitNeeded.getConversionFactor());}
-        else {this.setValue(this.getValue()*this.getUnit().getConversionFactor()/unitNeeded.getConversionFactor());}
-        this.setUnit(unitNeeded);}
+        double converted = this.getUnit().converterTo(unitNeeded).convert(this.getValue());
+        if (isNegativeScalar(converted, unitNeeded, this.isVector())) {return Status.NEGATIVE_SCALAR;}
+        this.setUnit(unitNeeded); // First, so the value is checked against the new scale
+        this.setValue(converted);
+        return Status.OK;}
 }
@@ -0,0 +1,162 @@
+package numeric_classes;
+
+import java.util.Arrays;
+
+/**
+ * Columnar (structure-of-arrays) storage for many quantities.
+ * <p>
+ * Instead of one Quantity object per value, it keeps a double[] of values
+ * and byte[] columns with the Unit and QuantityName ordinals. The vector
+ * flag is shared by the whole array; the ordinals are read back unsigned,
+ * so each enum may hold up to 256 constants. Quantity views are built lazily, on
+ * demand, and read and write straight through to the columns.
+ * @author      Geovani Lopes Dias <geovani.phy.dias @ gmail.com>
+ */
+public class QuantityArray {
+    private static final Unit[] UNITS = Unit.values();
+    private static final QuantityName[] NAMES = QuantityName.values();
+    private static final int DEFAULT_CAPACITY = 16;
+    static {
+        if (UNITS.length > 256 || NAMES.length > 256) {throw new IllegalStateException("Unit and QuantityName ordinals shall fit in a byte");}
+    }
+
+    private double[] values;
+    private byte[] units;
+    private byte[] names;
+    private int size;
+    private final boolean vector;
+
+    // Constructors:
+    public QuantityArray(boolean vector) {this(DEFAULT_CAPACITY, vector);}
+    public QuantityArray(int capacity, boolean vector) {
+        if (capacity < 0) {throw new IllegalArgumentException("Negative capacity: " + capacity);}
+        this.values = new double[capacity];
+        this.units = new byte[capacity];
+        this.names = new byte[capacity];
+        this.vector = vector;
+    }
+
+    /** Takes over columns already checked, as filled by QuantityGenerator. */
+    QuantityArray(double[] values, byte[] units, byte[] names, boolean vector) {
+        this.values = values;
+        this.units = units;
+        this.names = names;
+        this.size = values.length;
+        this.vector = vector;
+    }
+
+
+    // Appending:
+    /**
+    * Appends a quantity, checked as by the Quantity constructor.
+    *
+    * @return the index of the appended quantity.
+    */
+    public int add(double value, Unit unit, QuantityName name){
+        if (name.getFamily() != unit.getFamily())
+            {throw new Quantity.ConflictingQuantityFamiliesException();}
+        if (size == values.length) {grow();}
+        values[size] = value;
+        units[size] = (byte) unit.ordinal();
+        names[size] = (byte) name.ordinal();
+        return size++;}
+
+    public int add(Quantity quantity){
+        if (quantity.isVector() != vector)
+            {throw new IllegalArgumentException("All quantities of the array shall be " + (vector ? "vectors." : "scalars."));}
+        return add(quantity.getValue(), quantity.getUnit(), quantity.getName());}
+
+    private void grow(){
+        int capacity = Math.max(DEFAULT_CAPACITY, values.length + (values.length >> 1));
+        values = Arrays.copyOf(values, capacity);
+        units = Arrays.copyOf(units, capacity);
+        names = Arrays.copyOf(names, capacity);}
+
+
+    // Getters and setters:
+    public int size() {return size;}
+    public boolean isVector() {return vector;}
+    public double getValue(int index) {return values[checkIndex(index)];}
+    public Unit getUnit(int index) {return unit(units[checkIndex(index)]);}
+    public QuantityName getName(int index) {return name(names[checkIndex(index)]);}
+
+    public void setValue(int index, double value){
+        checkIndex(index);
+        if (Quantity.validate(value, unit(units[index]), name(names[index]), vector) != Quantity.Status.OK){
+            throw new Quantity.NegativeScalarException();}
+        else {values[index] = value;}}
+
+    public void setUnit(int index, Unit unit) {units[checkIndex(index)] = (byte) unit.ordinal();}
+
+    /** A copy of the values column, trimmed to the size. */
+    public double[] toValueArray() {return Arrays.copyOf(values, size);}
+
+    private static Unit unit(byte ordinal) {return UNITS[ordinal & 0xFF];}
+    private static QuantityName name(byte ordinal) {return NAMES[ordinal & 0xFF];}
+
+    private int checkIndex(int index){
+        if (index < 0 || index >= size) {throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);}
+        return index;}
+
+
+    /**
+    * Converts every quantity of the array to a certain unit.
+    * <p>
+    * The whole column is checked first, so nothing is changed when any
+    * quantity has another family, is dimensionless or (as a scalar) would
+    * come out negative, as Quantity.convertUnitTo refuses. Runs of the same unit
+    * are then converted in bulk through BulkConversion.
+    *
+    * @param unitNeeded: the Unit all the quantities shall be converted to.
+    */
+    public void convertUnitTo(Unit unitNeeded){
+        byte target = (byte) unitNeeded.ordinal();
+        for (int i = 0; i < size; i++) {
+            Unit unit = unit(units[i]);
+            if (units[i] == target) {continue;}
+            if (!Unit.isConvertible(unit, unitNeeded))
+                {throw QuantityMetrics.failure(Quantity.Status.CONFLICTING_FAMILIES);}
+            if (unit == Unit.DIMENSIONLESS)
+                {throw QuantityMetrics.failure(Quantity.Status.IMPROPER_CONVERSION);}
+            if (!vector && Quantity.validate(unit.converterTo(unitNeeded).convert(values[i]), unitNeeded, name(names[i]), false) != Quantity.Status.OK)
+                {throw QuantityMetrics.failure(Quantity.Status.NEGATIVE_SCALAR);}}
+
+        int start = 0;
+        while (start < size) {
+            byte runUnit = units[start];
+            int end = start + 1;
+            while (end < size && units[end] == runUnit) {end++;}
+            if (runUnit != target) {BulkConversion.convert(values, start, end - start, unit(runUnit), unitNeeded);}
+            start = end;}
+        Arrays.fill(units, 0, size, target);}
+
+
+    // Quantity views:
+    /**
+    * Gives a Quantity backed by the index-th row of the array.
+    * <p>
+    * The view is made on each call and holds no copy of the data: getters,
+    * setters and convertUnitTo act on the columns.
+    */
+    public Quantity get(int index) {
+        checkIndex(index);
+        return new View(index);}
+
+    private class View extends Quantity {
+        private final int index;
+
+        private View(int index) {
+            super(values[index], unit(units[index]), name(names[index]), vector);
+            this.index = index;}
+
+        @Override public double getValue() {return values[index];}
+        @Override public Unit getUnit() {return unit(units[index]);}
+        @Override public QuantityName getName() {return name(names[index]);}
+        @Override public String getUnitSymbol() {return getUnit().getSymbol();}
+        @Override public String getPTName() {return getName().getPortugueseWriting();}
+        @Override public String getENName() {return getName().getEnglishWriting();}
+        @Override public boolean isVector() {return vector;}
+        @Override public void setUnit(Unit unit) {QuantityArray.this.setUnit(index, unit);}
+        @Override public void setValue(double value) {QuantityArray.this.setValue(index, value);}
+    }
+}
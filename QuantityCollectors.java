@@ -0,0 +1,127 @@
+package numeric_classes;
+
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+
+/**
+ * Stream collectors and column reducers over quantities in mixed units.
+ * <p>
+ * Each of them normalizes to SI inside the accumulator and gives the result
+ * in a target Unit, as summing(Unit.KILOMETER) over distances in MILE,
+ * KILOMETER and METER. Quantities of another family than the target's are
+ * rejected as soon as they are met. Every thread of a parallel stream (or
+ * block of a column) accumulates into its own container, combined at the
+ * end, so there is no contention.
+ * @author      Geovani Lopes Dias <geovani.phy.dias @ gmail.com>
+ */
+public final class QuantityCollectors {
+    private static final int BLOCK = 4096;
+
+    private QuantityCollectors() {}
+
+    // Collectors:
+    public static Collector<Quantity, ?, QuantityStatistics> summarizing(QuantityFamily family){
+        return Collector.of(() -> new QuantityStatistics(family), QuantityStatistics::accept, QuantityStatistics::combine,
+                Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH);}
+
+    /**
+    * The compensated sum, in the target unit (0 for an empty stream). For
+    * the scales with an offset, it is the sum of the values expressed in
+    * the target unit, as Quantity.add gives it.
+    */
+    public static Collector<Quantity, ?, Quantity> summing(Unit target){
+        return Collector.of(() -> new QuantityStatistics(target.getFamily()), QuantityStatistics::accept, QuantityStatistics::combine,
+                statistics -> statistics.getSum(target), Collector.Characteristics.UNORDERED);}
+
+    /** The mean, in the target unit (null for an empty stream). */
+    public static Collector<Quantity, ?, Quantity> averaging(Unit target){
+        return Collector.of(() -> new QuantityStatistics(target.getFamily()), QuantityStatistics::accept, QuantityStatistics::combine,
+                statistics -> statistics.getAverage(target), Collector.Characteristics.UNORDERED);}
+
+    /** The least quantity, in the target unit (null for an empty stream). */
+    public static Collector<Quantity, ?, Quantity> minimum(Unit target){
+        return Collector.of(() -> new QuantityStatistics(target.getFamily()), QuantityStatistics::accept, QuantityStatistics::combine,
+                statistics -> statistics.getMin(target), Collector.Characteristics.UNORDERED);}
+
+    /** The greatest quantity, in the target unit (null for an empty stream). */
+    public static Collector<Quantity, ?, Quantity> maximum(Unit target){
+        return Collector.of(() -> new QuantityStatistics(target.getFamily()), QuantityStatistics::accept, QuantityStatistics::combine,
+                statistics -> statistics.getMax(target), Collector.Characteristics.UNORDERED);}
+
+    /**
+    * Counts the quantities, as values in the target unit, in bins of equal
+    * width over [lower, upper).
+    */
+    public static Collector<Quantity, ?, Histogram> histogram(Unit target, double lower, double upper, int bins){
+        if (bins < 1 || !(lower < upper) || !Double.isFinite(upper - lower))
+            {throw new IllegalArgumentException("A histogram needs at least one bin and finite bounds, lower < upper.");}
+        return Collector.of(() -> new Histogram(target, lower, upper, bins), Histogram::accept, Histogram::combine,
+                Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH);}
+
+
+    // Column reducers:
+    /** Statistics of a column of values, all in the given unit. */
+    public static QuantityStatistics summarize(double[] values, Unit unit, boolean parallel){
+        double factor = unit.getConversionFactor(), offset = unit.getOffset();
+        return blocks(values.length, parallel).collect(() -> new QuantityStatistics(unit.getFamily()),
+                (statistics, block) -> {
+                    for (int i = block * BLOCK, end = Math.min(values.length, i + BLOCK); i < end; i++) {
+                        statistics.acceptSI(values[i] * factor + offset);}},
+                QuantityStatistics::combine);}
+
+    /** Statistics of a QuantityArray, whose rows may be in mixed units of the family. */
+    public static QuantityStatistics summarize(QuantityArray array, QuantityFamily family, boolean parallel){
+        int size = array.size();
+        return blocks(size, parallel).collect(() -> new QuantityStatistics(family),
+                (statistics, block) -> {
+                    for (int i = block * BLOCK, end = Math.min(size, i + BLOCK); i < end; i++) {
+                        statistics.accept(array.getValue(i), array.getUnit(i));}},
+                QuantityStatistics::combine);}
+
+    private static IntStream blocks(int length, boolean parallel){
+        IntStream blocks = IntStream.range(0, (length + BLOCK - 1) / BLOCK);
+        return parallel ? blocks.parallel() : blocks;}
+
+
+    /**
+     * Counts of values per bin; values out of [lower, upper) are counted apart.
+     */
+    public static final class Histogram {
+        private final Unit unit;
+        private final double lower, upper, scale;
+        private final long[] counts;
+        private long underflow, overflow;
+
+        private Histogram(Unit unit, double lower, double upper, int bins) {
+            this.unit = unit;
+            this.lower = lower;
+            this.upper = upper;
+            this.scale = bins / (upper - lower);
+            this.counts = new long[bins];
+        }
+
+        private void accept(Quantity quantity){
+            if (quantity.getUnit().getFamily() != unit.getFamily()) {throw new Quantity.ConflictingQuantityFamiliesException();}
+            double value = quantity.getUnit().converterTo(unit).convert(quantity.getValue());
+            if (!(value >= lower)) {underflow++;}
+            else if (value >= upper) {overflow++;}
+            else {counts[Math.min(counts.length - 1, (int) ((value - lower) * scale))]++;}}
+
+        private Histogram combine(Histogram other){
+            for (int i = 0; i < counts.length; i++) {counts[i] += other.counts[i];}
+            underflow += other.underflow;
+            overflow += other.overflow;
+            return this;}
+
+        public Unit getUnit() {return unit;}
+        public double getLower() {return lower;}
+        public double getUpper() {return upper;}
+        public int getBinCount() {return counts.length;}
+        public long getCount(int bin) {return counts[bin];}
+        public long[] getCounts() {return counts.clone();}
+        /** Values below lower (NaN included). */
+        public long getUnderflow() {return underflow;}
+        public long getOverflow() {return overflow;}
+        public double getBinLower(int bin) {return lower + bin / scale;}
+    }
+}
@@ -1,21 +1,118 @@
 package numeric_classes;
 
-import java.util.Arrays;
-
 /**
- * The set of quantity families. 
+ * The set of quantity families.
+ * <p>
+ * Each family carries its dimensions: the exponents of the SI base
+ * quantities, packed as signed bytes in a single long. Lane 0 (the lowest
+ * byte) is length, then mass, time, current, temperature, amount of
+ * substance and luminous intensity. Multiplying quantities adds these
+ * vectors, dividing subtracts them, so dimensional analysis is integer
+ * arithmetic only.
  * @author Geovane
  */
 public enum QuantityFamily {
-    DIMENSIONLESS,
-    TIME, LENGTH, AREA, VOLUME,
-    MASS, TEMPERATURE, DENSITY,
-    VELOCITY, ACCELERATION, JERK,
-    FORCE_BY_LENGTH,
-    MOMENTUM, FORCE, PRESSURE, FIELD, ENERGY, POWER,
-    CHARGE, CURRENT, VOLTAGE, RESISTANCE, RESISTIVITY
+    //                 L, M,  T,  I, Θ
+    DIMENSIONLESS     (0, 0,  0,  0, 0),
+    TIME              (0, 0,  1,  0, 0), LENGTH(1, 0, 0, 0, 0), AREA(2, 0, 0, 0, 0), VOLUME(3, 0, 0, 0, 0),
+    MASS              (0, 1,  0,  0, 0), TEMPERATURE(0, 0, 0, 0, 1), DENSITY(-3, 1, 0, 0, 0),
+    VELOCITY          (1, 0, -1,  0, 0), ACCELERATION(1, 0, -2, 0, 0), JERK(1, 0, -3, 0, 0),
+    FORCE_BY_LENGTH   (0, 1, -2,  0, 0),
+    MOMENTUM          (1, 1, -1,  0, 0), FORCE(1, 1, -2, 0, 0), PRESSURE(-1, 1, -2, 0, 0),
+    FIELD             (1, 1, -3, -1, 0), // Electric field; a gravitational one is an ACCELERATION
+    ENERGY            (2, 1, -2,  0, 0), POWER(2, 1, -3, 0, 0),
+    CHARGE            (0, 0,  1,  1, 0), CURRENT(0, 0, 0, 1, 0), VOLTAGE(2, 1, -3, -1, 0),
+    RESISTANCE        (2, 1, -3, -2, 0), RESISTIVITY(3, 1, -3, -2, 0)
     ;
-    
-    public static boolean areFamiliesTheSame(QuantityFamily[] qf1, QuantityFamily[] qf2){ // Is a generic and overloaded solution needed?
-        Arrays.sort(qf1); Arrays.sort(qf2); return Arrays.equals(qf1, qf2);}
+
+    private static final int LANES = 7;
+    private static final long HIGH_BITS = 0x0080808080808080L, LOW_BITS = 0x007F7F7F7F7F7F7FL;
+
+    private final long dimensions;
+
+    private QuantityFamily(int length, int mass, int time, int current, int temperature) {
+        this.dimensions = pack(new int[] {length, mass, time, current, temperature});
+    }
+
+    public long getDimensions() {return dimensions;}
+
+
+    // Packed dimension arithmetic:
+    /** Packs the exponents, lane 0 first, into a dimension vector. */
+    public static long pack(int[] exponents){
+        if (exponents.length > LANES) {throw new IllegalArgumentException("At most " + LANES + " base dimensions");}
+        long packed = 0;
+        for (int i = 0; i < exponents.length; i++) {
+            if (exponents[i] < Byte.MIN_VALUE || exponents[i] > Byte.MAX_VALUE)
+                {throw new ArithmeticException("Dimension exponent out of range: " + exponents[i]);}
+            packed |= (exponents[i] & 0xFFL) << (8 * i);}
+        return packed;}
+
+    /** The exponent of the given lane (0 for length, 1 for mass...). */
+    public static int exponent(long dimensions, int lane) {return (byte) (dimensions >>> (8 * lane));}
+
+    /**
+    * Dimensions of a product: lane-wise sum, with no carry between lanes.
+    *
+    * @throws ArithmeticException if an exponent leaves the byte range, as in pow.
+    */
+    public static long multiply(long a, long b){
+        long sum = ((a & LOW_BITS) + (b & LOW_BITS)) ^ ((a ^ b) & HIGH_BITS);
+        // Signed overflow: both lanes of the same sign, the sum of the other one
+        checkLanes((sum ^ a) & (sum ^ b), a, b, 1);
+        return sum;}
+
+    /** Dimensions of a quotient: lane-wise difference, with no borrow between lanes. */
+    public static long divide(long a, long b){
+        long difference = (((a | HIGH_BITS) - (b & LOW_BITS)) ^ ((a ^ ~b) & HIGH_BITS)) & (HIGH_BITS | LOW_BITS);
+        // Signed overflow: lanes of opposite signs, the difference not of the sign of a
+        checkLanes((a ^ b) & (a ^ difference), a, b, -1);
+        return difference;}
+
+    private static void checkLanes(long overflows, long a, long b, int sign){
+        if ((overflows & HIGH_BITS) == 0) {return;}
+        int lane = Long.numberOfTrailingZeros(overflows & HIGH_BITS) / 8;
+        throw new ArithmeticException("Dimension exponent out of range: " + (exponent(a, lane) + sign * exponent(b, lane)));}
+
+    /** Dimensions of a power: every exponent times n. */
+    public static long pow(long dimensions, int n){
+        long packed = 0;
+        for (int lane = 0; lane < LANES; lane++) {
+            int exponent = exponent(dimensions, lane) * n;
+            if (exponent < Byte.MIN_VALUE || exponent > Byte.MAX_VALUE)
+                {throw new ArithmeticException("Dimension exponent out of range: " + exponent);}
+            packed |= (exponent & 0xFFL) << (8 * lane);}
+        return packed;}
+
+
+    // Reverse lookup, as an open addressing table:
+    private static final int TABLE_MASK = 63;
+    private static final long[] KEYS = new long[TABLE_MASK + 1];
+    private static final QuantityFamily[] FAMILIES = new QuantityFamily[TABLE_MASK + 1];
+    static {
+        for (QuantityFamily family : values()) {
+            int slot = slot(family.dimensions);
+            while (FAMILIES[slot] != null) {slot = (slot + 1) & TABLE_MASK;}
+            KEYS[slot] = family.dimensions;
+            FAMILIES[slot] = family;}
+    }
+
+    private static int slot(long dimensions) {return (int) ((dimensions * 0x9E3779B97F4A7C15L) >>> 58);}
+
+    /** The family of the given dimensions, or null if none is registered. */
+    public static QuantityFamily ofDimensions(long dimensions){
+        for (int slot = slot(dimensions); FAMILIES[slot] != null; slot = (slot + 1) & TABLE_MASK) {
+            if (KEYS[slot] == dimensions) {return FAMILIES[slot];}}
+        return null;}
+
+    /**
+    * Tells whether both arrays hold the same families, in any order.
+    * The arrays are left untouched.
+    */
+    public static boolean areFamiliesTheSame(QuantityFamily[] qf1, QuantityFamily[] qf2){
+        if (qf1.length != qf2.length) {return false;}
+        int[] counts = new int[values().length];
+        for (QuantityFamily family : qf1) {counts[family.ordinal()]++;}
+        for (QuantityFamily family : qf2) {if (--counts[family.ordinal()] < 0) {return false;}}
+        return true;}
 }
@@ -0,0 +1,211 @@
+package numeric_classes;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.text.DecimalFormatSymbols;
+
+/**
+ * Writes quantities as text, as "12.5 km" or "massa: 9.109E-31 kg".
+ * <p>
+ * A formatter is immutable, so one instance may be shared by any number of
+ * threads. Digits are written one by one straight into the target (an
+ * Appendable, a StringBuilder or a ByteBuffer, as UTF-8), so no temporary
+ * String nor DecimalFormat is made per call.
+ * <p>
+ * Like DecimalFormat("#.#"), trailing zeros of the fraction are dropped and
+ * the value is rounded half-even, on its exact binary value: 0.15 (in fact
+ * 0.1499999...) gives "0.1". The digits come from a double product,
+ * redone with BigDecimal when it lies too close to a tie or too large for a
+ * long. As with DecimalFormat, FIXED notation writes large values in
+ * full (1e20 as "100000000000000000000"), and keeps the sign of a negative
+ * value rounded to zero ("-0").
+ * @author      Geovani Lopes Dias <geovani.phy.dias @ gmail.com>
+ */
+public final class QuantityFormatter {
+    public enum Notation {FIXED, SCIENTIFIC, AUTO};
+    public enum Label {NONE, ENGLISH, PORTUGUESE};
+
+    static final int MAX_PRECISION = 15;
+    private static final double TWO_TO_52 = 0x1p52; // From here on, a double has no fraction
+    private static final long[] POWERS_OF_TEN = new long[19];
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;}
+    }
+
+    /** One decimal digit, fixed notation, no label: the way Quantity.toString writes. */
+    public static final QuantityFormatter DEFAULT = new QuantityFormatter(
+            1, Notation.FIXED, Label.NONE, DecimalFormatSymbols.getInstance().getDecimalSeparator());
+
+    private final int precision;
+    private final Notation notation;
+    private final Label label;
+    private final char decimalSeparator;
+
+    // Constructor and copy methods:
+    /**
+    * @param precision: the maximum number of fraction digits (of the
+    * mantissa, in scientific notation), from 0 to 15.
+    * @param notation: FIXED, SCIENTIFIC or AUTO (scientific only for values
+    * from 1e9 on or too small to show at the precision asked).
+    * @param label: whether the QuantityName is written first, and in which language.
+    * @param decimalSeparator: as '.' or ','.
+    */
+    public QuantityFormatter(int precision, Notation notation, Label label, char decimalSeparator) {
+        if (precision < 0 || precision > MAX_PRECISION)
+            {throw new IllegalArgumentException("Precision shall be from 0 to " + MAX_PRECISION + ": " + precision);}
+        this.precision = precision;
+        this.notation = notation;
+        this.label = label;
+        this.decimalSeparator = decimalSeparator;
+    }
+
+    public QuantityFormatter withPrecision(int precision) {return new QuantityFormatter(precision, notation, label, decimalSeparator);}
+    public QuantityFormatter withNotation(Notation notation) {return new QuantityFormatter(precision, notation, label, decimalSeparator);}
+    public QuantityFormatter withLabel(Label label) {return new QuantityFormatter(precision, notation, label, decimalSeparator);}
+    public QuantityFormatter withDecimalSeparator(char decimalSeparator) {return new QuantityFormatter(precision, notation, label, decimalSeparator);}
+
+    public int getPrecision() {return precision;}
+    public Notation getNotation() {return notation;}
+    public Label getLabel() {return label;}
+    public char getDecimalSeparator() {return decimalSeparator;}
+
+
+    // Formatting:
+    public String format(Quantity quantity) {return formatTo(quantity, new StringBuilder(24)).toString();}
+
+    public StringBuilder formatTo(Quantity quantity, StringBuilder out) {return formatTo(quantity.getValue(), quantity.getUnit(), quantity.getName(), out);}
+
+    /** For values held outside a Quantity, as in a QuantityArray. The name may be null. */
+    public StringBuilder formatTo(double value, Unit unit, QuantityName name, StringBuilder out){
+        try {write(value, unit, name, out);}
+        catch (IOException e) {throw new UncheckedIOException(e);} // StringBuilder never throws it
+        return out;}
+
+    public <A extends Appendable> A formatTo(Quantity quantity, A out) throws IOException {return formatTo(quantity.getValue(), quantity.getUnit(), quantity.getName(), out);}
+
+    public <A extends Appendable> A formatTo(double value, Unit unit, QuantityName name, A out) throws IOException {
+        write(value, unit, name, out);
+        return out;}
+
+    /**
+    * Writes the quantity as UTF-8 from the buffer position on.
+    *
+    * @throws java.nio.BufferOverflowException if the buffer has no room left.
+    */
+    public ByteBuffer formatTo(Quantity quantity, ByteBuffer out) {return formatTo(quantity.getValue(), quantity.getUnit(), quantity.getName(), out);}
+
+    public ByteBuffer formatTo(double value, Unit unit, QuantityName name, ByteBuffer out){
+        try {write(value, unit, name, new Utf8Sink(out));}
+        catch (IOException e) {throw new UncheckedIOException(e);} // Utf8Sink never throws it
+        return out;}
+
+
+    private void write(double value, Unit unit, QuantityName name, Appendable out) throws IOException {
+        if (!QuantityMetrics.ENABLED) {writeQuantity(value, unit, name, out); return;}
+        long start = QuantityMetrics.start();
+        writeQuantity(value, unit, name, out);
+        QuantityMetrics.formatting(start);}
+
+    private void writeQuantity(double value, Unit unit, QuantityName name, Appendable out) throws IOException {
+        if (name != null && label != Label.NONE) {
+            out.append(label == Label.ENGLISH ? name.getEnglishWriting() : name.getPortugueseWriting()).append(':').append(' ');}
+        writeNumber(value, out);
+        if (!unit.getSymbol().isEmpty()) {out.append(' ').append(unit.getSymbol());}}
+
+    private void writeNumber(double value, Appendable out) throws IOException {
+        if (Double.isNaN(value)) {out.append("NaN"); return;}
+        if (Double.isInfinite(value)) {out.append(value < 0 ? "-\u221e" : "\u221e"); return;}
+        double abs = Math.abs(value);
+        boolean scientific = notation == Notation.SCIENTIFIC
+                || (notation == Notation.AUTO && abs != 0 && (abs >= 1e9 || abs * POWERS_OF_TEN[precision] < 0.5));
+        if (!scientific) {
+            if (Double.doubleToRawLongBits(value) < 0) {out.append('-');} // As DecimalFormat, "-0" included
+            long scaled = rintAwayFromTies(abs * POWERS_OF_TEN[precision], 1);
+            if (scaled >= 0) {writeDigits(scaled, precision, out); return;}
+            // Near a tie or beyond a long: as DecimalFormat, round the shortest round-trip
+            // digits (so 1e20 is written in full), a tie of them going by the exact value.
+            BigDecimal shortest = BigDecimal.valueOf(abs), rounded = shortest;
+            if (shortest.scale() > precision) {
+                int side = new BigDecimal(abs).compareTo(shortest);
+                rounded = shortest.setScale(precision, side > 0 ? RoundingMode.HALF_UP : side < 0 ? RoundingMode.HALF_DOWN : RoundingMode.HALF_EVEN);}
+            String plain = rounded.signum() == 0 ? "0" : rounded.stripTrailingZeros().toPlainString();
+            out.append(decimalSeparator == '.' ? plain : plain.replace('.', decimalSeparator));
+            return;}
+
+        if (abs == 0) {out.append('0'); return;}
+        int exponent = (int) Math.floor(Math.log10(abs));
+        long scaled = scaledMantissa(abs, exponent);
+        if (scaled >= 10 * POWERS_OF_TEN[precision]) {scaled = scaledMantissa(abs, ++exponent);} // log10 rounding
+        else if (scaled >= 0 && scaled < POWERS_OF_TEN[precision]) {scaled = scaledMantissa(abs, --exponent);}
+        if (scaled < 0) { // Near a tie: round the exact value
+            BigDecimal rounded = new BigDecimal(abs).round(new MathContext(precision + 1, RoundingMode.HALF_EVEN));
+            exponent = rounded.precision() - rounded.scale() - 1;
+            scaled = rounded.scaleByPowerOfTen(precision - exponent).longValueExact();}
+        if (value < 0) {out.append('-');}
+        writeDigits(scaled, precision, out);
+        out.append('E');
+        if (exponent < 0) {out.append('-');}
+        writeDigits(Math.abs(exponent), 0, out);}
+
+    /** The mantissa times 10^precision, rounded; -1 when too close to a tie to be trusted. */
+    private long scaledMantissa(double abs, int exponent){
+        double mantissa = exponent < -300 ? (abs * 1e300) / Math.pow(10, exponent + 300) : abs / Math.pow(10, exponent);
+        return rintAwayFromTies(mantissa * POWERS_OF_TEN[precision], 16);}
+
+    /**
+    * Math.rint of a scaled value holding at most the given rounding error
+    * (in ulps), or -1 if that error may have moved it across a tie (or if it
+    * is too large to have a fraction left).
+    */
+    private static long rintAwayFromTies(double scaled, int ulps){
+        if (scaled >= TWO_TO_52 || Math.abs(scaled - Math.floor(scaled) - 0.5) <= ulps * Math.ulp(scaled)) {return -1;}
+        return (long) Math.rint(scaled);}
+
+    /** Writes scaled / 10^fractionDigits, dropping trailing zeros of the fraction. */
+    private void writeDigits(long scaled, int fractionDigits, Appendable out) throws IOException {
+        long integer = scaled / POWERS_OF_TEN[fractionDigits], fraction = scaled % POWERS_OF_TEN[fractionDigits];
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && integer >= POWERS_OF_TEN[digits]) {digits++;}
+        for (int d = digits - 1; d >= 0; d--) {out.append((char) ('0' + integer / POWERS_OF_TEN[d] % 10));}
+        if (fraction == 0) {return;}
+        while (fraction % 10 == 0) {fraction /= 10; fractionDigits--;}
+        out.append(decimalSeparator);
+        for (int d = fractionDigits - 1; d >= 0; d--) {out.append((char) ('0' + fraction / POWERS_OF_TEN[d] % 10));}}
+
+
+    /** UTF-8 encoding of the characters straight into a ByteBuffer. */
+    private static final class Utf8Sink implements Appendable {
+        private final ByteBuffer out;
+        private char highSurrogate;
+
+        private Utf8Sink(ByteBuffer out) {this.out = out;}
+
+        @Override
+        public Appendable append(CharSequence text) {return append(text, 0, text.length());}
+
+        @Override
+        public Appendable append(CharSequence text, int start, int end){
+            for (int i = start; i < end; i++) {append(text.charAt(i));}
+            return this;}
+
+        @Override
+        public Appendable append(char c){
+            if (Character.isHighSurrogate(c)) {highSurrogate = c;}
+            else if (Character.isLowSurrogate(c) && highSurrogate != 0) {
+                int codePoint = Character.toCodePoint(highSurrogate, c);
+                highSurrogate = 0;
+                out.put((byte) (0xF0 | (codePoint >> 18)))
+                   .put((byte) (0x80 | ((codePoint >> 12) & 0x3F)))
+                   .put((byte) (0x80 | ((codePoint >> 6) & 0x3F)))
+                   .put((byte) (0x80 | (codePoint & 0x3F)));}
+            else if (c < 0x80) {out.put((byte) c);}
+            else if (c < 0x800) {out.put((byte) (0xC0 | (c >> 6))).put((byte) (0x80 | (c & 0x3F)));}
+            else {out.put((byte) (0xE0 | (c >> 12))).put((byte) (0x80 | ((c >> 6) & 0x3F))).put((byte) (0x80 | (c & 0x3F)));}
+            return this;}
+    }
+}
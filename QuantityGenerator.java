@@ -0,0 +1,208 @@
+package numeric_classes;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Seedable, splittable generator of random quantities for bulk problem generation.
+ * <p>
+ * A quantity is drawn as a value, uniform within the SI range of its
+ * QuantityName, and a unit of its family, the value being then converted
+ * to that unit. The unit pools are computed once per family.
+ * <p>
+ * Bulk outputs (QuantityArray and Stream) are cut in blocks of fixed size,
+ * each drawn from its own SplittableRandom seeded from a mix of the
+ * generator seed and the block index (a linear seed would make the block
+ * streams shifted copies of each other). So the same seed gives the same quantities, in the
+ * same order, whether they are made sequentially or in parallel.
+ * @author      Geovani Lopes Dias <geovani.phy.dias @ gmail.com>
+ */
+public final class QuantityGenerator {
+    private static final int BLOCK = 4096;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final Unit[][] POOLS = new Unit[QuantityFamily.values().length][];
+    private static final double[] DEFAULT_MINIMUMS = new double[QuantityName.values().length],
+            DEFAULT_MAXIMUMS = new double[QuantityName.values().length];
+    static {
+        // PERCENTAGE is left out: its factor of 1 does not turn a ratio into a percentage.
+        for (QuantityFamily family : QuantityFamily.values()) {
+            POOLS[family.ordinal()] = Arrays.stream(Unit.values())
+                    .filter(unit -> unit.getFamily() == family && unit != Unit.PERCENTAGE).toArray(Unit[]::new);}
+
+        Arrays.fill(DEFAULT_MAXIMUMS, 100);
+        range(QuantityName.COEFFICIENT_OF_FRICTION, 0.05, 1); range(QuantityName.EFFICIENCY, 0, 1);
+        range(QuantityName.SIDE, 0.01, 100); range(QuantityName.PERIMETER, 0.1, 1000); range(QuantityName.DIAGONAL, 0.01, 150);
+        range(QuantityName.DISTANCE, 1, 1e5); range(QuantityName.POSITION, 0, 1000); range(QuantityName.DISPLACEMENT, 0, 1000);
+        range(QuantityName.HEIGHT, 0.1, 1000); range(QuantityName.DEPTH, 0.1, 1e4);
+        range(QuantityName.AREA, 0.01, 1e4); range(QuantityName.SURFACE, 0.01, 1e4); range(QuantityName.VOLUME, 1e-6, 10);
+        range(QuantityName.INSTANT, 0, 3600); range(QuantityName.TIME_SPAN, 0.1, 3600);
+        range(QuantityName.SPEED, 0, 100); range(QuantityName.VELOCITY, 0, 100); range(QuantityName.ACCELERATION, 0, 30);
+        range(QuantityName.MASS, 0.01, 1000); range(QuantityName.TEMPERATURE, 200, 400);
+        range(QuantityName.FORCE, 0.1, 1e4); range(QuantityName.WEIGHT, 0.1, 1e4); range(QuantityName.SPRING_CONSTANT, 1, 1e4);
+        range(QuantityName.PRESSURE, 1e3, 1e6); range(QuantityName.WORK, 0, 1e5); range(QuantityName.HEAT, 0, 1e5);
+        range(QuantityName.CHARGE, 1e-9, 1e-3); range(QuantityName.RATIO, 0, 1); range(QuantityName.ENERGY, 0, 1e5);
+    }
+
+    private static void range(QuantityName name, double minimum, double maximum){
+        DEFAULT_MINIMUMS[name.ordinal()] = minimum;
+        DEFAULT_MAXIMUMS[name.ordinal()] = maximum;}
+
+
+    private final long seed;
+    private final SplittableRandom random; // For the one-at-a-time draws
+    private final double[] minimums, maximums; // By QuantityName ordinal, in SI
+
+    private QuantityGenerator(long seed, SplittableRandom random, double[] minimums, double[] maximums) {
+        this.seed = seed;
+        this.random = random;
+        this.minimums = minimums;
+        this.maximums = maximums;
+    }
+
+    // Constructor and copy methods:
+    public QuantityGenerator(long seed) {this(seed, new SplittableRandom(seed), DEFAULT_MINIMUMS, DEFAULT_MAXIMUMS);}
+
+    /**
+    * Sets the SI value range of a name, as [minimum, maximum).
+    * The other ranges and the seed are kept.
+    */
+    public QuantityGenerator withRange(QuantityName name, double minimum, double maximum){
+        if (!(minimum <= maximum) || !Double.isFinite(maximum - minimum))
+            {throw new IllegalArgumentException("A range needs finite bounds, minimum <= maximum.");}
+        double[] newMinimums = minimums.clone(), newMaximums = maximums.clone();
+        newMinimums[name.ordinal()] = minimum;
+        newMaximums[name.ordinal()] = maximum;
+        return new QuantityGenerator(seed, new SplittableRandom(seed), newMinimums, newMaximums);}
+
+    /**
+    * A generator for another thread (as a fork-join subtask), with the same
+    * ranges and a split of this one's one-at-a-time stream.
+    */
+    public QuantityGenerator split() {return new QuantityGenerator(random.nextLong(), random.split(), minimums, maximums);}
+
+    public long getSeed() {return seed;}
+    public double getMinimum(QuantityName name) {return minimums[name.ordinal()];}
+    public double getMaximum(QuantityName name) {return maximums[name.ordinal()];}
+
+
+    // One at a time:
+    /** A unit of the family, drawn from its pool; null if the family has no unit. */
+    public Unit nextUnit(QuantityFamily family) {return nextUnit(family, random);}
+
+    /** A value within the range of the name, in SI. */
+    public double nextValue(QuantityName name) {return nextValue(name, random);}
+
+    public Quantity next(QuantityName name) {return next(name, random);}
+
+    private Unit nextUnit(QuantityFamily family, RandomGenerator random){
+        Unit[] pool = POOLS[family.ordinal()];
+        return pool.length == 0 ? null : pool[random.nextInt(pool.length)];}
+
+    private double nextValue(QuantityName name, RandomGenerator random){
+        double minimum = minimums[name.ordinal()], maximum = maximums[name.ordinal()];
+        return minimum + random.nextDouble() * (maximum - minimum);}
+
+    private Quantity next(QuantityName name, RandomGenerator random){
+        double value = nextValue(name, random);
+        Unit unit = drawUnit(name, random);
+        return new Quantity(fromSI(value, unit), unit, name, false);}
+
+    private Unit drawUnit(QuantityName name, RandomGenerator random){
+        checkPool(name);
+        return nextUnit(name.getFamily(), random);}
+
+    /** Fails early on families with no unit, without drawing. */
+    private static void checkPool(QuantityName name){
+        if (POOLS[name.getFamily().ordinal()].length == 0)
+            {throw new IllegalArgumentException("The family " + name.getFamily() + " has no unit to draw from.");}}
+
+    private static double fromSI(double value, Unit unit){
+        Unit standard = Unit.standardOf(unit.getFamily());
+        return standard == null ? value : standard.converterTo(unit).convert(value);}
+
+
+    // In bulk:
+    /**
+    * Fills a new QuantityArray (of scalars) with count quantities of the name.
+    *
+    * @param parallel: whether the blocks are drawn on the common fork-join pool.
+    */
+    public QuantityArray generate(QuantityName name, int count, boolean parallel){
+        if (count < 0) {throw new IllegalArgumentException("Negative count: " + count);}
+        if (count > 0) {checkPool(name);}
+        double[] values = new double[count];
+        byte[] units = new byte[count], names = new byte[count];
+        Arrays.fill(names, (byte) name.ordinal());
+        IntStream blocks = IntStream.range(0, (count + BLOCK - 1) / BLOCK);
+        (parallel ? blocks.parallel() : blocks).forEach(block -> {
+            SplittableRandom blockRandom = blockRandom(block);
+            for (int i = block * BLOCK, end = Math.min(count, i + BLOCK); i < end; i++) {
+                double value = nextValue(name, blockRandom);
+                Unit unit = nextUnit(name.getFamily(), blockRandom);
+                values[i] = fromSI(value, unit);
+                units[i] = (byte) unit.ordinal();}});
+        return new QuantityArray(values, units, names, false);}
+
+    /**
+    * A stream of count quantities of the name; it may be made parallel.
+    * Sequential or parallel, it holds the same quantities as generate.
+    */
+    public Stream<Quantity> stream(QuantityName name, long count){
+        if (count < 0) {throw new IllegalArgumentException("Negative count: " + count);}
+        if (count > 0) {checkPool(name);}
+        return StreamSupport.stream(new BlockSpliterator(name, 0, count), false);}
+
+    private SplittableRandom blockRandom(long block) {return new SplittableRandom(mix64(seed + (block + 1) * GOLDEN_GAMMA));}
+
+    /** The MurmurHash3 finalizer (Stafford's variant 13), as SplittableRandom uses for its outputs. */
+    private static long mix64(long z){
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);}
+
+    /**
+     * Walks the indexes [index, end), splitting only at block boundaries.
+     */
+    private final class BlockSpliterator implements Spliterator<Quantity> {
+        private final QuantityName name;
+        private long index;
+        private final long end;
+        private SplittableRandom blockRandom;
+
+        private BlockSpliterator(QuantityName name, long index, long end) {
+            this.name = name;
+            this.index = index;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Quantity> action){
+            if (index >= end) {return false;}
+            if (index % BLOCK == 0 || blockRandom == null) {blockRandom = blockRandom(index / BLOCK);}
+            action.accept(next(name, blockRandom));
+            index++;
+            return true;}
+
+        @Override
+        public Spliterator<Quantity> trySplit(){
+            if (index % BLOCK != 0) {return null;} // Within a block already drawn from
+            long blocks = (end - index + BLOCK - 1) / BLOCK;
+            if (blocks < 2) {return null;}
+            long middle = index + (blocks / 2) * BLOCK;
+            Spliterator<Quantity> prefix = new BlockSpliterator(name, index, middle);
+            index = middle;
+            return prefix;}
+
+        @Override
+        public long estimateSize() {return end - index;}
+
+        @Override
+        public int characteristics() {return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;}
+    }
+}
@@ -0,0 +1,197 @@
+package numeric_classes;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Opt-in counters and latency histograms of the conversion and formatting paths.
+ * <p>
+ * Enabled with -Dnumeric_classes.metrics=true. The flag is a static final
+ * field, so when it is off the JIT compiler drops the guarded calls and
+ * the paths cost what they did before (see InstrumentationBenchmark).
+ * <p>
+ * When on, every call of Quantity.convertUnitTo, BulkConversion.convert
+ * and QuantityFormatter is counted in LongAdder cells (by unit pair
+ * ordinals for the conversions), and so is every failed conversion, on
+ * those paths and on QuantityArray and QuantityStore (by Status), which keeps
+ * threads from contending. One call in samplePeriod (64 by default, set
+ * with -Dnumeric_classes.metrics.samplePeriod) is also timed into a
+ * histogram of power-of-two bins. The figures are read by snapshot() or
+ * through JMX.
+ * @author      Geovani Lopes Dias <geovani.phy.dias @ gmail.com>
+ */
+public final class QuantityMetrics implements QuantityMetricsMXBean {
+    public static final boolean ENABLED = Boolean.getBoolean("numeric_classes.metrics");
+    public static final int SAMPLE_PERIOD = Math.max(1, Integer.getInteger("numeric_classes.metrics.samplePeriod", 64));
+    public static final String OBJECT_NAME = "numeric_classes:type=QuantityMetrics";
+
+    /** The timed operations. */
+    public enum Operation {CONVERSION, BULK_CONVERSION, FORMATTING};
+
+    static final long NOT_SAMPLED = Long.MIN_VALUE;
+    private static final Unit[] UNITS = Unit.values();
+    private static final int COUNT = UNITS.length, BINS = 65; // Bin b holds latencies below 2^b ns
+    private static final Quantity.Status[] STATUSES = Quantity.Status.values();
+    private static final LongAdder[] CONVERSIONS = ENABLED ? adders(COUNT * COUNT) : null;
+    private static final LongAdder[] BULK_VALUES = ENABLED ? adders(COUNT * COUNT) : null;
+    private static final LongAdder[] FAILURES = ENABLED ? adders(STATUSES.length) : null;
+    private static final String[] FAILURE_NAMES = new String[STATUSES.length]; // Exception names, by Status ordinal
+    private static final LongAdder FORMATS = new LongAdder();
+    private static final LongAdder[][] LATENCIES = new LongAdder[Operation.values().length][];
+    static {
+        FAILURE_NAMES[Quantity.Status.CONFLICTING_FAMILIES.ordinal()] = Quantity.ConflictingQuantityFamiliesException.class.getSimpleName();
+        FAILURE_NAMES[Quantity.Status.IMPROPER_CONVERSION.ordinal()] = Quantity.ImproperConvertionException.class.getSimpleName();
+        FAILURE_NAMES[Quantity.Status.NEGATIVE_SCALAR.ordinal()] = Quantity.NegativeScalarException.class.getSimpleName();
+        if (ENABLED) {
+            for (int i = 0; i < LATENCIES.length; i++) {LATENCIES[i] = adders(BINS);}
+            try {ManagementFactory.getPlatformMBeanServer().registerMBean(new QuantityMetrics(), new ObjectName(OBJECT_NAME));}
+            catch (JMException e) { // As registered by another class loader: the snapshot API still works
+                System.getLogger(QuantityMetrics.class.getName()).log(System.Logger.Level.WARNING,
+                        "QuantityMetrics not registered as " + OBJECT_NAME + "; only its snapshot API is available", e);}
+        }
+    }
+
+    private static LongAdder[] adders(int length){
+        LongAdder[] adders = new LongAdder[length];
+        for (int i = 0; i < length; i++) {adders[i] = new LongAdder();}
+        return adders;}
+
+    private QuantityMetrics() {}
+
+
+    // Recording, called only under "if (QuantityMetrics.ENABLED)":
+    /** The start time of a sampled call, or NOT_SAMPLED. */
+    static long start(){
+        return (SAMPLE_PERIOD == 1 || ThreadLocalRandom.current().nextInt(SAMPLE_PERIOD) == 0) ? System.nanoTime() : NOT_SAMPLED;}
+
+    static void conversion(Unit from, Unit to, Quantity.Status status, long start){
+        if (status == Quantity.Status.OK) {CONVERSIONS[from.ordinal() * COUNT + to.ordinal()].increment();}
+        else {FAILURES[status.ordinal()].increment();}
+        stop(Operation.CONVERSION, start);}
+
+    /** Counts a conversion failed on any path, giving the exception to throw. */
+    static RuntimeException failure(Quantity.Status status){
+        if (ENABLED) {FAILURES[status.ordinal()].increment();}
+        return status.toException();}
+
+    static void bulkConversion(Unit from, Unit to, int length, long start){
+        BULK_VALUES[from.ordinal() * COUNT + to.ordinal()].add(length);
+        stop(Operation.BULK_CONVERSION, start);}
+
+    static void formatting(long start){
+        FORMATS.increment();
+        stop(Operation.FORMATTING, start);}
+
+    private static void stop(Operation operation, long start){
+        if (start == NOT_SAMPLED) {return;}
+        long nanos = Math.max(0, System.nanoTime() - start);
+        LATENCIES[operation.ordinal()][64 - Long.numberOfLeadingZeros(nanos)].increment();}
+
+
+    // Reading:
+    public static Snapshot snapshot() {return new Snapshot();}
+
+    /** Zeroes every counter; calls running meanwhile may be partly kept. */
+    public static void resetAll(){
+        if (!ENABLED) {return;}
+        for (LongAdder adder : CONVERSIONS) {adder.reset();}
+        for (LongAdder adder : BULK_VALUES) {adder.reset();}
+        for (LongAdder adder : FAILURES) {adder.reset();}
+        FORMATS.reset();
+        for (LongAdder[] histogram : LATENCIES) {for (LongAdder adder : histogram) {adder.reset();}}}
+
+    /**
+     * The counters at one moment, read cell by cell (so not atomically as a
+     * whole). All zero when the metrics are disabled.
+     */
+    public static final class Snapshot {
+        private final long[] conversions = new long[COUNT * COUNT], bulkValues = new long[COUNT * COUNT];
+        private final long[] failures = new long[STATUSES.length];
+        private final long formats;
+        private final long[][] latencies = new long[Operation.values().length][BINS];
+
+        private Snapshot() {
+            if (ENABLED) {
+                for (int i = 0; i < conversions.length; i++) {
+                    conversions[i] = CONVERSIONS[i].sum();
+                    bulkValues[i] = BULK_VALUES[i].sum();}
+                for (int i = 0; i < failures.length; i++) {failures[i] = FAILURES[i].sum();}
+                for (int i = 0; i < latencies.length; i++) {
+                    for (int b = 0; b < BINS; b++) {latencies[i][b] = LATENCIES[i][b].sum();}}}
+            formats = FORMATS.sum();
+        }
+
+        public long getConversions(Unit from, Unit to) {return conversions[from.ordinal() * COUNT + to.ordinal()];}
+        public long getBulkValues(Unit from, Unit to) {return bulkValues[from.ordinal() * COUNT + to.ordinal()];}
+        public long getConversions() {return total(conversions);}
+        public long getBulkValues() {return total(bulkValues);}
+        public long getFormats() {return formats;}
+
+        /** Conversions failed on any path with the status (and so its exception type). */
+        public long getFailures(Quantity.Status status) {return failures[status.ordinal()];}
+        public long getFailures() {return total(failures);}
+
+        /** Sampled calls of the operation per bin; bin b counts latencies in [2^(b-1), 2^b) ns. */
+        public long[] getLatencyHistogram(Operation operation) {return latencies[operation.ordinal()].clone();}
+
+        /**
+        * The upper bound, in nanoseconds, of the bin holding the given
+        * fraction of the sampled latencies; 0 if none was sampled.
+        *
+        * @param fraction: in (0, 1], as 0.99 for the 99th percentile.
+        */
+        public long getLatencyPercentile(Operation operation, double fraction){
+            long[] histogram = latencies[operation.ordinal()];
+            long rank = (long) Math.ceil(total(histogram) * fraction), seen = 0;
+            for (int b = 0; b < BINS; b++) {
+                seen += histogram[b];
+                if (seen >= rank && seen > 0) {return b == 64 ? Long.MAX_VALUE : (1L << b) - 1;}}
+            return 0;}
+
+        private static long total(long[] counts){
+            long total = 0;
+            for (long count : counts) {total += count;}
+            return total;}
+
+        private Map<String, Long> pairs(long[] counts){
+            Map<String, Long> map = new LinkedHashMap<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {map.put(UNITS[i / COUNT] + "->" + UNITS[i % COUNT], counts[i]);}}
+            return map;}
+    }
+
+
+    // QuantityMetricsMXBean:
+    @Override public boolean isEnabled() {return ENABLED;}
+    @Override public int getSamplePeriod() {return SAMPLE_PERIOD;}
+    @Override public long getConversionCount() {return snapshot().getConversions();}
+    @Override public long getBulkValueCount() {return snapshot().getBulkValues();}
+    @Override public long getFormatCount() {return FORMATS.sum();}
+    @Override public long getFailureCount() {return snapshot().getFailures();}
+    @Override public Map<String, Long> getConversionCounts() {Snapshot snapshot = snapshot(); return snapshot.pairs(snapshot.conversions);}
+    @Override public Map<String, Long> getBulkValueCounts() {Snapshot snapshot = snapshot(); return snapshot.pairs(snapshot.bulkValues);}
+
+    @Override
+    public Map<String, Long> getFailureCounts(){
+        Snapshot snapshot = snapshot();
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (Quantity.Status status : STATUSES) {
+            if (status != Quantity.Status.OK) {map.put(FAILURE_NAMES[status.ordinal()], snapshot.getFailures(status));}}
+        return map;}
+
+    @Override public Map<String, Long> getLatencyMedianNanos() {return percentiles(0.5);}
+    @Override public Map<String, Long> getLatencyP99Nanos() {return percentiles(0.99);}
+
+    private static Map<String, Long> percentiles(double fraction){
+        Snapshot snapshot = snapshot();
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {map.put(operation.name(), snapshot.getLatencyPercentile(operation, fraction));}
+        return map;}
+
+    @Override public void reset() {resetAll();}
+}
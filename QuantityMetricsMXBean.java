@@ -0,0 +1,31 @@
+package numeric_classes;
+
+import java.util.Map;
+
+/**
+ * JMX view of QuantityMetrics, registered as numeric_classes:type=QuantityMetrics
+ * when the metrics are enabled.
+ * @author      Geovani Lopes Dias <geovani.phy.dias @ gmail.com>
+ */
+public interface QuantityMetricsMXBean {
+    boolean isEnabled();
+    int getSamplePeriod();
+
+    long getConversionCount();
+    long getBulkValueCount();
+    long getFormatCount();
+    long getFailureCount();
+
+    /** Single conversions per unit pair, keyed as "MILE->KILOMETER"; pairs never seen are left out. */
+    Map<String, Long> getConversionCounts();
+    /** Values converted in bulk per unit pair, keyed as in getConversionCounts. */
+    Map<String, Long> getBulkValueCounts();
+    /** Failed conversions per exception class (simple name). */
+    Map<String, Long> getFailureCounts();
+
+    /** Sampled latency percentiles of each operation, in nanoseconds (upper bounds of the histogram bins). */
+    Map<String, Long> getLatencyMedianNanos();
+    Map<String, Long> getLatencyP99Nanos();
+
+    void reset();
+}
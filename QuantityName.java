@@ -31,6 +31,7 @@ public enum QuantityName {
     ACCELERATION("aceleração", "acceleration", QuantityFamily.ACCELERATION),
     
     MASS("massa", "mass", QuantityFamily.MASS),
+    TEMPERATURE("temperatura", "temperature", QuantityFamily.TEMPERATURE),
     
     FORCE("força", "force", QuantityFamily.FORCE),
     FRICTION("atrito", "friction", QuantityFamily.FORCE),
@@ -50,6 +51,10 @@ public enum QuantityName {
     ENTALPY("entalpia", "entalpy", QuantityFamily.ENERGY),
     
     CHARGE("carga", "charge", QuantityFamily.CHARGE),
+    
+    // Neutral names of derived quantities; appended, so the ordinals above are kept:
+    RATIO("razão", "ratio", QuantityFamily.DIMENSIONLESS),
+    ENERGY("energia", "energy", QuantityFamily.ENERGY),
     ;
     
     private final String portugueseWriting, englishWriting;
@@ -65,5 +70,20 @@ public enum QuantityName {
     public String getEnglishWriting() {return englishWriting;}
     public QuantityFamily getFamily() {return family;}
     
+    private static final QuantityName[] DEFAULTS = new QuantityName[QuantityFamily.values().length];
+    static {
+        neutral(RATIO); neutral(LENGTH); neutral(AREA); neutral(VOLUME); neutral(TIME_SPAN);
+        neutral(SPEED); neutral(ACCELERATION); neutral(MASS); neutral(TEMPERATURE);
+        neutral(FORCE); neutral(SPRING_CONSTANT); neutral(PRESSURE); neutral(ENERGY); neutral(CHARGE);
+    }
+    
+    private static void neutral(QuantityName name) {DEFAULTS[name.family.ordinal()] = name;}
+    
+    /**
+    * The neutral name of a family (as LENGTH for lengths, RATIO for ratios),
+    * given to derived quantities, or null if the family has none.
+    */
+    public static QuantityName defaultOf(QuantityFamily family) {return DEFAULTS[family.ordinal()];}
+    
     
 }
@@ -0,0 +1,98 @@
+package numeric_classes;
+
+/**
+ * Count, sum, mean, minimum and maximum of quantities of one family.
+ * <p>
+ * Every quantity is taken to SI on arrival (by the conversion factor and
+ * offset of its Unit), so quantities in mixed units of the family may be
+ * put together; quantities of other families are rejected at once. The
+ * sum is compensated (Neumaier), so adding millions of values of mixed
+ * magnitudes loses no more than a rounding. Results are given back as
+ * quantities in any unit of the family. For the scales with an offset (as
+ * CELSIUS), the sum is the one of the values expressed in the target unit,
+ * as Quantity.add gives it: 10 °C and 20 °C sum to 30 °C (and to 576.3 K).
+ * <p>
+ * Like DoubleSummaryStatistics, an instance is not thread-safe; parallel
+ * reductions give each thread its own and combine them at the end.
+ * @author      Geovani Lopes Dias <geovani.phy.dias @ gmail.com>
+ */
+public final class QuantityStatistics {
+    private final QuantityFamily family;
+    private long count;
+    private double sum, compensation; // In SI
+    private double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+    private QuantityName name; // The one shared by every quantity, else the family default
+    private boolean vector;
+
+    public QuantityStatistics(QuantityFamily family) {this.family = family;}
+
+    // Accumulation:
+    public void accept(Quantity quantity){
+        accept(quantity.getValue(), quantity.getUnit());
+        QuantityName quantityName = quantity.getName();
+        if (name == null && count == 1) {name = quantityName;}
+        else if (name != quantityName) {name = QuantityName.defaultOf(family);}
+        vector |= quantity.isVector();}
+
+    public void accept(double value, Unit unit){
+        if (unit.getFamily() != family) {throw new Quantity.ConflictingQuantityFamiliesException();}
+        acceptSI(value * unit.getConversionFactor() + unit.getOffset());}
+
+    void acceptSI(double value){
+        count++;
+        add(value);
+        if (value < min) {min = value;}
+        if (value > max) {max = value;}}
+
+    /** Neumaier's compensated addition. */
+    private void add(double value){
+        double total = sum + value;
+        if (Math.abs(sum) >= Math.abs(value)) {compensation += (sum - total) + value;}
+        else {compensation += (value - total) + sum;}
+        sum = total;}
+
+    /** Adds the state of another instance, of the same family, to this one. */
+    public QuantityStatistics combine(QuantityStatistics other){
+        if (other.family != family) {throw new Quantity.ConflictingQuantityFamiliesException();}
+        if (other.count == 0) {return this;}
+        if (count == 0) {name = other.name;}
+        else if (name != other.name) {name = QuantityName.defaultOf(family);}
+        count += other.count;
+        add(other.sum);
+        add(other.compensation);
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        vector |= other.vector;
+        return this;}
+
+
+    // Getters, in SI:
+    public QuantityFamily getFamily() {return family;}
+    public long getCount() {return count;}
+    public double getSum() {return sum + compensation;}
+    public double getAverage() {return count == 0 ? Double.NaN : getSum() / count;}
+    public double getMin() {return min;}
+    public double getMax() {return max;}
+
+    // Getters, as quantities:
+    /**
+    * The sum of the values expressed in the target unit (so its offset is
+    * taken once per value); 0 if nothing was accepted.
+    */
+    public Quantity getSum(Unit target) {return toQuantity(getSum() - (count - 1) * target.getOffset(), target);}
+    /** The mean in the target unit, or null if nothing was accepted. */
+    public Quantity getAverage(Unit target) {return count == 0 ? null : toQuantity(getAverage(), target);}
+    /** The minimum in the target unit, or null if nothing was accepted. */
+    public Quantity getMin(Unit target) {return count == 0 ? null : toQuantity(min, target);}
+    /** The maximum in the target unit, or null if nothing was accepted. */
+    public Quantity getMax(Unit target) {return count == 0 ? null : toQuantity(max, target);}
+
+    private Quantity toQuantity(double siValue, Unit target){
+        if (target.getFamily() != family) {throw new Quantity.ConflictingQuantityFamiliesException();}
+        QuantityName resultName = (name != null) ? name : QuantityName.defaultOf(family);
+        if (resultName == null) {throw new IllegalStateException("The family " + family + " has no QuantityName yet.");}
+        return new Quantity((siValue - target.getOffset()) / target.getConversionFactor(), target, resultName, vector);}
+
+    @Override
+    public String toString() {return "QuantityStatistics{family=" + family + ", count=" + count + ", sum=" + getSum() + ", min=" + min + ", max=" + max + "} (SI)";}
+}
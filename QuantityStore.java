@@ -0,0 +1,255 @@
+package numeric_classes;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A file of fixed-size quantity records, memory-mapped off the heap.
+ * <p>
+ * Each record takes 16 bytes: the value as a little-endian double, then
+ * the Unit and QuantityName ordinals as one unsigned byte each (the rest
+ * is padding). A 64-byte header holds the record count, the vector flag of
+ * the whole store and fingerprints of the Unit and QuantityName ordinal
+ * layouts, so a file written before the enums were reordered is refused on
+ * reopening instead of being misread.
+ * <p>
+ * The file is mapped in segments of up to 1 GiB, so stores may hold
+ * billions of records. A segment is mapped as far as the records reach,
+ * and remapped twice as large as appends go past it, so the file stays
+ * near the size of its records (close trims the rest). Reading, scanning
+ * and convertUnitTo work straight on the mapped memory: no Quantity object
+ * is built unless get is called.
+ * <p>
+ * Reads may be done from many threads at once; appends and writes shall
+ * neither race each other nor run during reads.
+ * @author      Geovani Lopes Dias <geovani.phy.dias @ gmail.com>
+ */
+public final class QuantityStore implements AutoCloseable {
+    private static final int MAGIC = 0x51535452; // "QSTR"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 64, RECORD_SIZE = 16;
+    private static final int COUNT_OFFSET = 16;
+    private static final int SEGMENT_SHIFT = 26; // Records per segment, as a power of two
+    private static final long SEGMENT_RECORDS = 1L << SEGMENT_SHIFT, SEGMENT_MASK = SEGMENT_RECORDS - 1;
+    private static final int MIN_MAPPING = 4096 * RECORD_SIZE;
+    private static final Unit[] UNITS = Unit.values();
+    private static final QuantityName[] NAMES = QuantityName.values();
+    private static final long UNIT_LAYOUT = fingerprint(UNITS), NAME_LAYOUT = fingerprint(NAMES);
+    static {
+        if (UNITS.length > 256 || NAMES.length > 256) {throw new IllegalStateException("Unit and QuantityName ordinals shall fit in a byte");}
+    }
+
+    /**
+     * Receives the records of a scan.
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+        void visit(long index, double value, Unit unit, QuantityName name);
+    }
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0]; // Copied on write, under map's lock
+    private final boolean vector;
+    private long size;
+
+    private QuantityStore(FileChannel channel, MappedByteBuffer header, boolean vector, long size) {
+        this.channel = channel;
+        this.header = header;
+        this.vector = vector;
+        this.size = size;
+    }
+
+    // Static factory methods:
+    /** Creates (or overwrites) an empty store. */
+    public static QuantityStore create(Path path, boolean vector) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        header.order(ByteOrder.LITTLE_ENDIAN)
+              .putInt(0, MAGIC).putInt(4, FORMAT_VERSION).putInt(8, RECORD_SIZE).putInt(12, vector ? 1 : 0)
+              .putLong(COUNT_OFFSET, 0)
+              .putInt(24, UNITS.length).putInt(28, NAMES.length)
+              .putLong(32, UNIT_LAYOUT).putLong(40, NAME_LAYOUT);
+        return new QuantityStore(channel, header, vector, 0);}
+
+    /**
+    * Reopens a store, reading only its header.
+    *
+    * @throws IOException if the file is no store, or was written with
+    * another layout of the Unit or QuantityName ordinals.
+    */
+    public static QuantityStore open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_SIZE) {throw new IOException("Not a quantity store: " + path);}
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC) {throw new IOException("Not a quantity store: " + path);}
+            if (header.getInt(4) != FORMAT_VERSION || header.getInt(8) != RECORD_SIZE)
+                {throw new IOException("Unsupported store format " + header.getInt(4) + ": " + path);}
+            if (header.getInt(24) != UNITS.length || header.getLong(32) != UNIT_LAYOUT
+                    || header.getInt(28) != NAMES.length || header.getLong(40) != NAME_LAYOUT)
+                {throw new IOException("The Unit or QuantityName ordinals changed since the store was written: " + path);}
+            long size = header.getLong(COUNT_OFFSET);
+            if (size < 0 || HEADER_SIZE + size * RECORD_SIZE > channel.size()) {throw new IOException("Truncated store: " + path);}
+            return new QuantityStore(channel, header, header.getInt(12) != 0, size);}
+        catch (IOException | RuntimeException e) {channel.close(); throw e;}}
+
+    /** FNV-1a over the constant names, in ordinal order. */
+    private static long fingerprint(Enum<?>[] constants){
+        long hash = 0xcbf29ce484222325L;
+        for (Enum<?> constant : constants) {
+            String name = constant.name();
+            for (int i = 0; i < name.length(); i++) {hash = (hash ^ name.charAt(i)) * 0x100000001b3L;}
+            hash = (hash ^ '\n') * 0x100000001b3L;}
+        return hash;}
+
+
+    // Record access:
+    /** The mapping holding the index-th record, an existing one. */
+    private MappedByteBuffer segment(long index) {return segment(index, size);}
+
+    /** The mapping holding the index-th record, mapping no further than the first limit records. */
+    private MappedByteBuffer segment(long index, long limit){
+        MappedByteBuffer[] current = segments;
+        int segment = (int) (index >>> SEGMENT_SHIFT);
+        if (segment < current.length) {
+            MappedByteBuffer mapped = current[segment];
+            if (mapped != null && offset(index) < mapped.capacity()) {return mapped;}}
+        return map(segment, index, limit);}
+
+    /**
+    * Maps the segment (again, larger) so that it holds the index-th record.
+    * Mappings replaced stay valid for the threads still using them: they
+    * share the same pages.
+    */
+    private synchronized MappedByteBuffer map(int segment, long index, long limit){
+        MappedByteBuffer[] current = segments;
+        MappedByteBuffer mapped = segment < current.length ? current[segment] : null;
+        long needed = offset(index) + RECORD_SIZE;
+        if (mapped != null && needed <= mapped.capacity()) {return mapped;} // Mapped meanwhile by another thread
+        long segmentStart = segment * SEGMENT_RECORDS;
+        long length = Math.max(MIN_MAPPING, mapped == null ? 0 : 2L * mapped.capacity());
+        length = Math.min(length, Math.min(SEGMENT_RECORDS, limit - segmentStart) * RECORD_SIZE);
+        length = Math.max(length, needed);
+        try {
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + segmentStart * RECORD_SIZE, length);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);}
+        catch (IOException e) {throw new java.io.UncheckedIOException(e);}
+        MappedByteBuffer[] next = Arrays.copyOf(current, Math.max(current.length, segment + 1));
+        next[segment] = mapped;
+        segments = next;
+        return mapped;}
+
+    private static int offset(long index) {return (int) ((index & SEGMENT_MASK) * RECORD_SIZE);}
+
+    private long checkIndex(long index){
+        if (index < 0 || index >= size) {throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);}
+        return index;}
+
+    public long size() {return size;}
+    public boolean isVector() {return vector;}
+
+    public double getValue(long index) {return segment(checkIndex(index)).getDouble(offset(index));}
+    public Unit getUnit(long index) {return unit(segment(checkIndex(index)).get(offset(index) + 8));}
+    public QuantityName getName(long index) {return name(segment(checkIndex(index)).get(offset(index) + 9));}
+
+    private static Unit unit(byte ordinal) {return UNITS[ordinal & 0xFF];}
+    private static QuantityName name(byte ordinal) {return NAMES[ordinal & 0xFF];}
+
+    /** The index-th record as a new Quantity. */
+    public Quantity get(long index) {return new Quantity(getValue(index), getUnit(index), getName(index), vector);}
+
+    public void setValue(long index, double value){
+        Quantity.Status status = Quantity.validate(value, getUnit(index), getName(index), vector);
+        if (status != Quantity.Status.OK) {throw status.toException();}
+        segment(index).putDouble(offset(index), value);}
+
+    /**
+    * Appends a record, checked as by the Quantity constructor.
+    *
+    * @return the index of the record.
+    */
+    public long append(double value, Unit unit, QuantityName name){
+        Quantity.Status status = Quantity.validate(value, unit, name, vector);
+        if (status != Quantity.Status.OK) {throw status.toException();}
+        long index = size;
+        MappedByteBuffer segment = segment(index, Long.MAX_VALUE);
+        int offset = offset(index);
+        segment.putDouble(offset, value).put(offset + 8, (byte) unit.ordinal()).put(offset + 9, (byte) name.ordinal());
+        header.putLong(COUNT_OFFSET, ++size);
+        return index;}
+
+    public long append(Quantity quantity){
+        if (quantity.isVector() != vector)
+            {throw new IllegalArgumentException("All quantities of the store shall be " + (vector ? "vectors." : "scalars."));}
+        return append(quantity.getValue(), quantity.getUnit(), quantity.getName());}
+
+
+    // Scans and conversion:
+    /** Visits the records [from, to) in order, with no object built per record. */
+    public void scan(long from, long to, RecordVisitor visitor){
+        checkRange(from, to);
+        for (long i = from; i < to; i++) {
+            MappedByteBuffer segment = segment(i);
+            int offset = offset(i);
+            visitor.visit(i, segment.getDouble(offset), unit(segment.get(offset + 8)), name(segment.get(offset + 9)));}}
+
+    public void scan(RecordVisitor visitor) {scan(0, size, visitor);}
+
+    /**
+    * Converts the records [from, to) to a certain unit, in place.
+    * <p>
+    * The range is checked first, so nothing is changed when any record
+    * has another family, is dimensionless or (as a scalar) would come out
+    * negative, as Quantity.convertUnitTo refuses.
+    */
+    public void convertUnitTo(long from, long to, Unit unitNeeded){
+        checkRange(from, to);
+        byte target = (byte) unitNeeded.ordinal();
+        for (long i = from; i < to; i++) {
+            MappedByteBuffer segment = segment(i);
+            int offset = offset(i);
+            Unit unit = unit(segment.get(offset + 8));
+            if (unit == unitNeeded) {continue;}
+            if (!Unit.isConvertible(unit, unitNeeded)) {throw QuantityMetrics.failure(Quantity.Status.CONFLICTING_FAMILIES);}
+            if (unit == Unit.DIMENSIONLESS) {throw QuantityMetrics.failure(Quantity.Status.IMPROPER_CONVERSION);}
+            if (!vector && Quantity.validate(unit.converterTo(unitNeeded).convert(segment.getDouble(offset)), unitNeeded, name(segment.get(offset + 9)), false) != Quantity.Status.OK)
+                {throw QuantityMetrics.failure(Quantity.Status.NEGATIVE_SCALAR);}}
+
+        for (long i = from; i < to; i++) {
+            MappedByteBuffer segment = segment(i);
+            int offset = offset(i);
+            byte unit = segment.get(offset + 8);
+            if (unit == target) {continue;}
+            segment.putDouble(offset, unit(unit).converterTo(unitNeeded).convert(segment.getDouble(offset)));
+            segment.put(offset + 8, target);}}
+
+    public void convertUnitTo(Unit unitNeeded) {convertUnitTo(0, size, unitNeeded);}
+
+    private void checkRange(long from, long to){
+        if (from < 0 || to > size || from > to) {throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for size " + size);}}
+
+
+    /** Writes the mapped pages back to the file. */
+    public void force(){
+        header.force();
+        for (MappedByteBuffer segment : segments) {if (segment != null) {segment.force();}}}
+
+    /**
+    * Forces the data to the file, trims the unused mapped tail and closes it.
+    * The mappings themselves are released by the garbage collector.
+    */
+    @Override
+    public void close() throws IOException {
+        force();
+        segments = new MappedByteBuffer[0];
+        channel.truncate(HEADER_SIZE + size * RECORD_SIZE);
+        channel.close();}
+}
@@ -1,5 +1,8 @@
 package numeric_classes;
 
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
 /**
  * A enum class for quantity units.
  * @author      Geovani Lopes Dias <geovani.phy.dias @ gmail.com>
@@ -22,9 +25,9 @@ public enum Unit {
     YARD(QuantityFamily.LENGTH, "yard", "yd", UnitSystem.Imperial, 0.9144),
     MILE(QuantityFamily.LENGTH, "mile", "mi", UnitSystem.Imperial, 1609.34),
     
-    ASTRO_UNIT(QuantityFamily.LENGTH, "astronomic unit", "AS", UnitSystem.Others, 6.6846e-12),
-    LIGHT_YEAR(QuantityFamily.LENGTH, "light-year", "ly", UnitSystem.Others, 1.057e-16),
-    PARSEC(QuantityFamily.LENGTH, "parsec", "pc", UnitSystem.Others, 3.24078e-17),
+    ASTRO_UNIT(QuantityFamily.LENGTH, "astronomic unit", "AS", UnitSystem.Others, 1.495978707e11),
+    LIGHT_YEAR(QuantityFamily.LENGTH, "light-year", "ly", UnitSystem.Others, 9.4607304725808e15),
+    PARSEC(QuantityFamily.LENGTH, "parsec", "pc", UnitSystem.Others, 3.0856775814913673e16),
     
     // Time units:
     SECOND(QuantityFamily.TIME, "second", "s", UnitSystem.International_Standard, 1),
@@ -41,7 +44,7 @@ public enum Unit {
     DECAGRAM(QuantityFamily.MASS, "decagram", "dag", UnitSystem.International_Multiple, 1e-2),
     HECTOGRAM(QuantityFamily.MASS, "hectogram", "hg", UnitSystem.International_Multiple, 1e-1),
     
-    OUNCE(QuantityFamily.MASS, "ounce", "oz", UnitSystem.Imperial, 10.028349),
+    OUNCE(QuantityFamily.MASS, "ounce", "oz", UnitSystem.Imperial, 0.028349523125),
     POUND(QuantityFamily.MASS, "pound", "lb", UnitSystem.Imperial, 0.453592),
     TONNE(QuantityFamily.MASS, "tonne", "t", UnitSystem.Others, 1000),
     EARTH_MASS(QuantityFamily.MASS, "earth's mass", "M\u2295", UnitSystem.Others, 5.972e24),
@@ -53,7 +56,7 @@ public enum Unit {
     MILE_PER_HOUR(QuantityFamily.VELOCITY, "mile per hour", "mi/h", UnitSystem.Imperial, 0.44704),
     KNOT_PT(QuantityFamily.VELOCITY, "knot", "nó", UnitSystem.International_Accepted, 0.514444),
     KNOT_EN(QuantityFamily.VELOCITY, "knot", "knot", UnitSystem.International_Accepted, 0.514444),
-    MACH(QuantityFamily.VELOCITY, "Mach", "Mach", UnitSystem.Others, 0.002915),
+    MACH(QuantityFamily.VELOCITY, "Mach", "Mach", UnitSystem.Others, 343),
     
     METER_PER_SECOND_SQUARED(QuantityFamily.ACCELERATION, "meter per second squared", "m/s²", UnitSystem.International_Standard, 1),
     G(QuantityFamily.ACCELERATION, "g", "g", UnitSystem.Others, 9.80665),
@@ -108,6 +111,11 @@ public enum Unit {
     MILIAMPERE(QuantityFamily.CURRENT, "miliampère", "mA", UnitSystem.International_Standard, 1e-3),
     
     COULOMB(QuantityFamily.CHARGE, "coulomb", "C", UnitSystem.International_Standard, 1),
+    
+    // Temperature units (with an offset to SI):
+    KELVIN(QuantityFamily.TEMPERATURE, "kelvin", "K", UnitSystem.International_Standard, 1),
+    CELSIUS(QuantityFamily.TEMPERATURE, "degree Celsius", "\u00b0C", UnitSystem.International_Accepted, 1, 273.15),
+    FAHRENHEIT(QuantityFamily.TEMPERATURE, "degree Fahrenheit", "\u00b0F", UnitSystem.Imperial, 5.0/9, 459.67*5/9),
     // ...
     ;
     
@@ -136,51 +144,110 @@ public enum Unit {
     private final String symbol;
     private final UnitSystem system;
     private final double conversionFactor; // One to multiply and get SI
+    private final double offset; // One to add, after multiplying, to get SI
 
     // Constructor and getters:
     private Unit(QuantityFamily family, String name, String symbol, UnitSystem system, double conversionFactor) {
+        this(family, name, symbol, system, conversionFactor, 0);
+    }
+    
+    private Unit(QuantityFamily family, String name, String symbol, UnitSystem system, double conversionFactor, double offset) {
         this.family = family;
         this.name = name;
         this.symbol = symbol;
         this.system = system;
         this.conversionFactor = conversionFactor;
+        this.offset = offset;
     }
 
     public QuantityFamily getFamily() {return family;}
     public String getName() {return name;}
     public String getSymbol() {return symbol;}
     public double getConversionFactor() {return conversionFactor;}
+    public double getOffset() {return offset;}
     public UnitSystem getSystem() {return system;}
     
     
-    // Random static factory methods:
-    public static Unit DrewForVehicleDistanceFromAnySystem(){
-        Unit[] longDistanceUnits = {Unit.MILE, Unit.KILOMETER};
-        int drewUnit = NumericProcessors.randomInt(0, longDistanceUnits.length);
-        return longDistanceUnits[drewUnit];
+    // Conversion factor table:
+    private static final Unit[] VALUES = values();
+    private static final int COUNT = VALUES.length;
+    private static final double[] FACTORS = new double[COUNT * COUNT]; // NaN across families
+    private static final UnitConverter[] CONVERTERS = new UnitConverter[COUNT * COUNT]; // null across families
+    static {
+        for (Unit from : VALUES) {
+            for (Unit to : VALUES) {
+                int pair = from.ordinal() * COUNT + to.ordinal();
+                if (from.family != to.family) {FACTORS[pair] = Double.NaN; continue;}
+                FACTORS[pair] = from.conversionFactor / to.conversionFactor;
+                CONVERTERS[pair] = UnitConverter.of(FACTORS[pair], (from.offset - to.offset) / to.conversionFactor);}}
+        // The Fahrenheit scale is defined by exact constants, which the way through SI (5/9 and 459.67*5/9) would round:
+        exactPair(CELSIUS, FAHRENHEIT, 1.8, 32);
+        exactPair(FAHRENHEIT, CELSIUS, 5.0 / 9, -160.0 / 9);
+        exactPair(KELVIN, FAHRENHEIT, 1.8, -459.67);
     }
     
-    public static Unit DrewForAstronomicDistanceFromAnySystem(){
-        Unit[] astronomicDistances = {Unit.KILOMETER, Unit.ASTRO_UNIT, Unit.PARSEC};
-        int drewUnit = NumericProcessors.randomInt(0, astronomicDistances.length);
-        return astronomicDistances[drewUnit];
-    }
+    private static void exactPair(Unit from, Unit to, double scale, double offset){
+        int pair = from.ordinal() * COUNT + to.ordinal();
+        FACTORS[pair] = scale;
+        CONVERTERS[pair] = UnitConverter.of(scale, offset);}
     
-    public static Unit DrewForVehicleMassFromAnySystem(){
-        Unit[] astronomicDistances = {Unit.KILOGRAM, Unit.POUND, Unit.TONNE};
-        int drewUnit = NumericProcessors.randomInt(0, astronomicDistances.length);
-        return astronomicDistances[drewUnit];
-    }
+    /**
+    * Gives the factor that converts a value in one unit to another.
+    * <p>
+    * The factors are computed once, for every pair of units of the same
+    * QuantityFamily, so a conversion is a single multiplication:
+    * {@code valueInTo = valueInFrom * Unit.factor(from, to)}.
+    * For units of different families the factor is NaN. For units with an
+    * offset (the temperature scales) it is only the scale; use converterTo.
+    * 
+    * @param from: the Unit the value is expressed in.
+    * @param to: the Unit the value shall be converted to.
+    * @return the multiplying factor, or NaN if the families differ.
+    */
+    public static double factor(Unit from, Unit to) {return FACTORS[from.ordinal() * COUNT + to.ordinal()];}
     
-    public static Unit DrewForSmallAreas(){
-        Unit[] genericAreas = {Unit.SQUARE_METER, Unit.SQUARE_CENTIMETER, Unit.SQUARE_MILIMETER, Unit.SQUARE_FEET, Unit.SQUARE_INCH};
-        int drewUnit = NumericProcessors.randomInt(0, genericAreas.length);
-        return genericAreas[drewUnit];
+    /**
+    * Gives the converter from this unit to another, cached per unit pair.
+    * 
+    * @throws IllegalArgumentException if the families differ.
+    */
+    public UnitConverter converterTo(Unit to){
+        UnitConverter converter = CONVERTERS[ordinal() * COUNT + to.ordinal()];
+        if (converter == null) {throw new IllegalArgumentException("Unit and name families shall be the same: " + this + " -> " + to);}
+        return converter;}
+    
+    /** Tells whether two units belong to the same QuantityFamily, without throwing. */
+    public static boolean isConvertible(Unit from, Unit to) {return from.family == to.family;}
+    
+    private static final Unit[] STANDARDS = new Unit[QuantityFamily.values().length];
+    static {
+        for (Unit unit : VALUES) {
+            if (unit.system == UnitSystem.International_Standard && unit.conversionFactor == 1 && unit.offset == 0 && STANDARDS[unit.family.ordinal()] == null)
+                {STANDARDS[unit.family.ordinal()] = unit;}}
     }
     
-    public static Unit DrewForSmallLengths(){
-        Unit[] genericAreas = {Unit.METER, Unit.CENTIMETER, Unit.MILIMETER, Unit.FOOT, Unit.INCH, Unit.YARD};
-        int drewUnit = NumericProcessors.randomInt(0, genericAreas.length);
-        return genericAreas[drewUnit];
-    }
-}
\ No newline at end of file
+    /** The SI unit (the one of factor 1) of a family, or null if there is none registered. */
+    public static Unit standardOf(QuantityFamily family) {return STANDARDS[family.ordinal()];}
+    
+    
+    // Random static factory methods:
+    private static final Unit[] VEHICLE_DISTANCES = {Unit.MILE, Unit.KILOMETER};
+    private static final Unit[] ASTRONOMIC_DISTANCES = {Unit.KILOMETER, Unit.ASTRO_UNIT, Unit.PARSEC};
+    private static final Unit[] VEHICLE_MASSES = {Unit.KILOGRAM, Unit.POUND, Unit.TONNE};
+    private static final Unit[] SMALL_AREAS = {Unit.SQUARE_METER, Unit.SQUARE_CENTIMETER, Unit.SQUARE_MILIMETER, Unit.SQUARE_FEET, Unit.SQUARE_INCH};
+    private static final Unit[] SMALL_LENGTHS = {Unit.METER, Unit.CENTIMETER, Unit.MILIMETER, Unit.FOOT, Unit.INCH, Unit.YARD};
+    
+    // With the thread's own generator:
+    public static Unit DrewForVehicleDistanceFromAnySystem() {return DrewForVehicleDistanceFromAnySystem(ThreadLocalRandom.current());}
+    public static Unit DrewForAstronomicDistanceFromAnySystem() {return DrewForAstronomicDistanceFromAnySystem(ThreadLocalRandom.current());}
+    public static Unit DrewForVehicleMassFromAnySystem() {return DrewForVehicleMassFromAnySystem(ThreadLocalRandom.current());}
+    public static Unit DrewForSmallAreas() {return DrewForSmallAreas(ThreadLocalRandom.current());}
+    public static Unit DrewForSmallLengths() {return DrewForSmallLengths(ThreadLocalRandom.current());}
+    
+    // With a given (as a seeded) generator, for reproducible draws:
+    public static Unit DrewForVehicleDistanceFromAnySystem(RandomGenerator random) {return VEHICLE_DISTANCES[random.nextInt(VEHICLE_DISTANCES.length)];}
+    public static Unit DrewForAstronomicDistanceFromAnySystem(RandomGenerator random) {return ASTRONOMIC_DISTANCES[random.nextInt(ASTRONOMIC_DISTANCES.length)];}
+    public static Unit DrewForVehicleMassFromAnySystem(RandomGenerator random) {return VEHICLE_MASSES[random.nextInt(VEHICLE_MASSES.length)];}
+    public static Unit DrewForSmallAreas(RandomGenerator random) {return SMALL_AREAS[random.nextInt(SMALL_AREAS.length)];}
+    public static Unit DrewForSmallLengths(RandomGenerator random) {return SMALL_LENGTHS[random.nextInt(SMALL_LENGTHS.length)];}
+}
@@ -0,0 +1,66 @@
+package numeric_classes;
+
+/**
+ * A conversion between two units: {@code to = from * scale + offset}.
+ * <p>
+ * Converters are immutable, invertible and composable. A chain of
+ * conversions (as mph to km/h to m/s) is fused into a single scale and
+ * offset, so applying it is one multiply-add whatever its length. Linear
+ * units have a null offset; affine ones, as the temperature scales, do not.
+ * <p>
+ * Unit.converterTo hands out converters cached per unit pair.
+ * @author      Geovani Lopes Dias <geovani.phy.dias @ gmail.com>
+ */
+public final class UnitConverter {
+    public static final UnitConverter IDENTITY = new UnitConverter(1, 0);
+
+    private final double scale;
+    private final double offset;
+
+    private UnitConverter(double scale, double offset) {
+        this.scale = scale;
+        this.offset = offset;
+    }
+
+    // Static factory methods:
+    public static UnitConverter of(double scale, double offset){
+        if (scale == 0 || !Double.isFinite(scale) || !Double.isFinite(offset))
+            {throw new IllegalArgumentException("A converter needs a finite, non null scale and a finite offset.");}
+        return (scale == 1 && offset == 0) ? IDENTITY : new UnitConverter(scale, offset);}
+
+    public static UnitConverter scaling(double scale) {return of(scale, 0);}
+
+
+    // Getters:
+    public double getScale() {return scale;}
+    public double getOffset() {return offset;}
+    public boolean isLinear() {return offset == 0;}
+    public boolean isIdentity() {return scale == 1 && offset == 0;}
+
+
+    // Conversion and composition:
+    public double convert(double value) {return value * scale + offset;}
+
+    /** The converter undoing this one. */
+    public UnitConverter inverse() {return of(1 / scale, -offset / scale);}
+
+    /**
+    * The converter applying this one, then next, fused into one.
+    *
+    * @param next: the converter applied to the output of this one.
+    */
+    public UnitConverter andThen(UnitConverter next) {return of(scale * next.scale, offset * next.scale + next.offset);}
+
+
+    @Override
+    public boolean equals(Object other){
+        if (!(other instanceof UnitConverter)) {return false;}
+        UnitConverter converter = (UnitConverter) other;
+        return Double.compare(scale, converter.scale) == 0 && Double.compare(offset, converter.offset) == 0;}
+
+    @Override
+    public int hashCode() {return 31 * Double.hashCode(scale) + Double.hashCode(offset);}
+
+    @Override
+    public String toString() {return isLinear() ? "x * " + scale : "x * " + scale + " + " + offset;}
+}
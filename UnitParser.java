@@ -0,0 +1,240 @@
+package numeric_classes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Extracts "value unit" pairs, such as "12.5 km/h", from text.
+ * <p>
+ * Every Unit symbol and name is compiled once into a character trie, so a
+ * unit is found by walking the text a single time, taking the longest
+ * match (as "m/s²" over "m/s" over "m"). Numbers are read digit by digit;
+ * neither numbers nor units create substrings on the usual path. Results
+ * go into a reusable Match, so scanning a CharSequence (or a CharBuffer)
+ * allocates nothing per quantity.
+ * <p>
+ * Some strings stand for more than one unit: "g" (GRAM and G) and the
+ * name "knot" (KNOT_PT and KNOT_EN). Symbols are preferred over names and,
+ * among equals, the unit declared first; the Match tells when the choice
+ * was ambiguous, and a QuantityFamily hint may be given to settle it.
+ * @author      Geovani Lopes Dias <geovani.phy.dias @ gmail.com>
+ */
+public final class UnitParser {
+    // Trie, as parallel arrays. Node 0 is the root.
+    private static final char[] LABEL;
+    private static final int[] FIRST_CHILD, NEXT_SIBLING, TERMINAL;
+    private static final Unit[][] CANDIDATES; // Indexed by TERMINAL, in order of preference
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    static {
+        List<String> keys = new ArrayList<>();
+        List<List<Unit>> units = new ArrayList<>();
+        for (Unit unit : Unit.values()) {register(keys, units, unit.getSymbol(), unit);}
+        for (Unit unit : Unit.values()) {register(keys, units, unit.getName(), unit);}
+
+        StringBuilder label = new StringBuilder().append('\0');
+        List<Integer> firstChild = new ArrayList<>(List.of(-1)),
+                nextSibling = new ArrayList<>(List.of(-1)),
+                terminal = new ArrayList<>(List.of(-1));
+        for (int k = 0; k < keys.size(); k++) {
+            String key = keys.get(k);
+            int node = 0;
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                int child = firstChild.get(node);
+                while (child != -1 && label.charAt(child) != c) {child = nextSibling.get(child);}
+                if (child == -1) {
+                    child = label.length();
+                    label.append(c);
+                    firstChild.add(-1); terminal.add(-1);
+                    nextSibling.add(firstChild.get(node));
+                    firstChild.set(node, child);}
+                node = child;}
+            terminal.set(node, k);}
+
+        LABEL = label.toString().toCharArray();
+        FIRST_CHILD = firstChild.stream().mapToInt(Integer::intValue).toArray();
+        NEXT_SIBLING = nextSibling.stream().mapToInt(Integer::intValue).toArray();
+        TERMINAL = terminal.stream().mapToInt(Integer::intValue).toArray();
+        CANDIDATES = new Unit[units.size()][];
+        for (int k = 0; k < units.size(); k++) {CANDIDATES[k] = units.get(k).toArray(new Unit[0]);}
+    }
+
+    private static void register(List<String> keys, List<List<Unit>> units, String key, Unit unit){
+        if (key.isEmpty()) {return;}
+        int k = keys.indexOf(key);
+        if (k == -1) {keys.add(key); units.add(new ArrayList<>(List.of(unit)));}
+        else if (!units.get(k).contains(unit)) {units.get(k).add(unit);}}
+
+
+    /**
+     * The outcome of a parse, reused from call to call.
+     */
+    public static final class Match {
+        private double value;
+        private Unit unit;
+        private int start, end, terminal;
+
+        public double getValue() {return value;}
+        public Unit getUnit() {return unit;}
+        /** Index of the first character of the number. */
+        public int getStart() {return start;}
+        /** Index just after the last character of the unit. */
+        public int getEnd() {return end;}
+        public boolean isAmbiguous() {return CANDIDATES[terminal].length > 1;}
+        public int getCandidateCount() {return CANDIDATES[terminal].length;}
+        public Unit getCandidate(int index) {return CANDIDATES[terminal][index];}
+
+        public Quantity toQuantity(QuantityName name, boolean vector) {return new Quantity(value, unit, name, vector);}
+
+        @Override
+        public String toString() {return value + " " + (unit == null ? "?" : unit.getSymbol());}
+    }
+
+
+    private final char decimalSeparator;
+
+    // Constructors:
+    /** A parser reading "12.5" as twelve and a half. */
+    public UnitParser() {this('.');}
+    /** A parser with a custom decimal separator, as ',' for Portuguese texts. */
+    public UnitParser(char decimalSeparator) {this.decimalSeparator = decimalSeparator;}
+
+
+    // Unit lookup:
+    /**
+    * Finds the unit written exactly as text[start, end), either by symbol or name.
+    *
+    * @return the preferred Unit, or null if none matches.
+    */
+    public static Unit lookup(CharSequence text, int start, int end) {return lookup(text, start, end, null);}
+
+    /**
+    * As lookup(text, start, end), but prefers a unit of the given family
+    * when the text stands for more than one unit.
+    */
+    public static Unit lookup(CharSequence text, int start, int end, QuantityFamily hint){
+        int node = 0;
+        for (int i = start; i < end && node != -1; i++) {node = child(node, text.charAt(i));}
+        if (node <= 0 || TERMINAL[node] == -1) {return null;}
+        return choose(TERMINAL[node], hint);}
+
+    public static Unit lookup(CharSequence text) {return lookup(text, 0, text.length(), null);}
+
+    private static int child(int node, char c){
+        int child = FIRST_CHILD[node];
+        while (child != -1 && LABEL[child] != c) {child = NEXT_SIBLING[child];}
+        return child;}
+
+    private static Unit choose(int terminal, QuantityFamily hint){
+        Unit[] candidates = CANDIDATES[terminal];
+        if (hint != null) {
+            for (Unit candidate : candidates) {if (candidate.getFamily() == hint) {return candidate;}}}
+        return candidates[0];}
+
+
+    // Parsing:
+    /**
+    * Parses a quantity starting at text[from]: a number, optional blanks
+    * and a unit, which must not run into a letter or a digit.
+    *
+    * @return whether a quantity was read into match.
+    */
+    public boolean parse(CharSequence text, int from, int to, Match match) {return parse(text, from, to, null, match);}
+
+    public boolean parse(CharSequence text, int from, int to, QuantityFamily hint, Match match){
+        int i = parseNumber(text, from, to, match);
+        if (i == -1) {return false;}
+        while (i < to && isBlank(text.charAt(i))) {i++;}
+
+        int node = 0, terminal = -1, end = -1;
+        for (int j = i; j < to; j++) {
+            node = child(node, text.charAt(j));
+            if (node == -1) {break;}
+            if (TERMINAL[node] != -1) {terminal = TERMINAL[node]; end = j + 1;}}
+        if (terminal == -1 || (end < to && Character.isLetterOrDigit(text.charAt(end)))) {return false;}
+
+        match.start = from;
+        match.end = end;
+        match.terminal = terminal;
+        match.unit = choose(terminal, hint);
+        return true;}
+
+    /**
+    * Parses text[from, to) as a bare number, with no unit.
+    *
+    * @return whether the whole range is a number; its value goes into match.
+    */
+    public boolean parseValue(CharSequence text, int from, int to, Match match){
+        if (parseNumber(text, from, to, match) != to) {return false;}
+        match.start = from;
+        match.end = to;
+        match.unit = null;
+        return true;}
+
+    /**
+    * Scans text[from, to) for the next quantity.
+    *
+    * @return the index just after the quantity found, or -1 if there is none.
+    * A streaming caller may resume from the returned index.
+    */
+    public int find(CharSequence text, int from, int to, Match match) {return find(text, from, to, null, match);}
+
+    public int find(CharSequence text, int from, int to, QuantityFamily hint, Match match){
+        int i = from;
+        while (i < to) {
+            char c = text.charAt(i);
+            boolean startsNumber = isDigit(c) || ((c == '-' || c == '+' || c == decimalSeparator) && i + 1 < to && isDigit(text.charAt(i + 1)));
+            if (startsNumber && (i == from || !isWordPart(text.charAt(i - 1)))) {
+                if (parse(text, i, to, hint, match)) {return match.end;}}
+            i++;
+            if (startsNumber) {while (i < to && isWordPart(text.charAt(i))) {i++;}}} // Skip the rest of the number
+        return -1;}
+
+    private int parseNumber(CharSequence text, int from, int to, Match match){
+        int i = from;
+        boolean negative = false;
+        if (i < to && (text.charAt(i) == '-' || text.charAt(i) == '+')) {negative = text.charAt(i) == '-'; i++;}
+
+        long mantissa = 0;
+        int significant = 0, scale = 0, digits = 0;
+        boolean exact = true;
+        for (; i < to && isDigit(text.charAt(i)); i++, digits++) {
+            int d = text.charAt(i) - '0';
+            if (significant < 18) {mantissa = mantissa * 10 + d; if (mantissa != 0) {significant++;}}
+            else {scale++; exact &= d == 0;}}
+        if (i + 1 < to && text.charAt(i) == decimalSeparator && isDigit(text.charAt(i + 1))) {
+            for (i++; i < to && isDigit(text.charAt(i)); i++, digits++) {
+                int d = text.charAt(i) - '0';
+                if (significant < 18) {mantissa = mantissa * 10 + d; scale--; if (mantissa != 0) {significant++;}}
+                else {exact &= d == 0;}}}
+        if (digits == 0) {return -1;}
+
+        int exponent = 0;
+        if (i < to && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            int j = i + 1;
+            boolean negativeExponent = false;
+            if (j < to && (text.charAt(j) == '-' || text.charAt(j) == '+')) {negativeExponent = text.charAt(j) == '-'; j++;}
+            if (j < to && isDigit(text.charAt(j))) {
+                for (; j < to && isDigit(text.charAt(j)); j++) {
+                    if (exponent < 100000) {exponent = exponent * 10 + (text.charAt(j) - '0');}}
+                if (negativeExponent) {exponent = -exponent;}
+                i = j;}}
+
+        int power = scale + exponent;
+        double value;
+        if (exact && mantissa < MAX_EXACT_MANTISSA && Math.abs(power) < POWERS_OF_TEN.length) {
+            value = power < 0 ? mantissa / POWERS_OF_TEN[-power] : mantissa * POWERS_OF_TEN[power];}
+        else { // Rare: too many digits or a huge exponent, let the JDK round it
+            String number = text.subSequence(from, i).toString();
+            value = Double.parseDouble(decimalSeparator == '.' ? number : number.replace(decimalSeparator, '.'));}
+        match.value = negative ? -Math.abs(value) : Math.abs(value);
+        return i;}
+
+    private static boolean isDigit(char c) {return c >= '0' && c <= '9';}
+    private static boolean isBlank(char c) {return c == ' ' || c == '\t' || c == '\u00a0' || c == '\u2009' || c == '\u202f';}
+    private boolean isWordPart(char c) {return Character.isLetterOrDigit(c) || c == decimalSeparator;}
+}
@@ -0,0 +1,27 @@
+package numeric_classes.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar.
+ * <p>
+ * Takes the usual JMH command line, but unless told otherwise it runs the
+ * gc profiler (allocation rate of each path) and writes the results as
+ * JSON to jmh-result.json, so runs of different releases can be compared.
+ * @author      Geovani Lopes Dias <geovani.phy.dias @ gmail.com>
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (commandLine.getProfilers().isEmpty()) {options.addProfiler(GCProfiler.class);}
+        if (!commandLine.getResultFormat().hasValue()) {options.resultFormat(ResultFormatType.JSON);}
+        if (!commandLine.getResult().hasValue()) {options.result("jmh-result.json");}
+        new Runner(options.build()).run();
+    }
+}
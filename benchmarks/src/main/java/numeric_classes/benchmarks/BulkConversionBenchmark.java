@@ -0,0 +1,66 @@
+package numeric_classes.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import numeric_classes.BulkConversion;
+import numeric_classes.Quantity;
+import numeric_classes.QuantityArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Many values converted at once, for every UnitSystem combination.
+ * <p>
+ * The per-object loop over Quantity is the baseline the bulk paths are
+ * measured against.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BulkConversionBenchmark {
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private double[] source, destination;
+    private QuantityArray column;
+
+    @Setup
+    public void fill(UnitPairState pair){
+        source = new double[size];
+        destination = new double[size];
+        column = new QuantityArray(size, false);
+        for (int i = 0; i < size; i++) {
+            source[i] = i + 0.5;
+            column.add(source[i], pair.from, pair.name);}}
+
+    @Benchmark
+    public double[] bulkArray(UnitPairState pair){
+        BulkConversion.convert(source, pair.from, destination, pair.to);
+        return destination;}
+
+    /** Converts the whole column there and back, so it is ready for the next call. */
+    @Benchmark
+    public QuantityArray quantityArrayAndBack(UnitPairState pair){
+        column.convertUnitTo(pair.to);
+        column.convertUnitTo(pair.from);
+        return column;}
+
+    @Benchmark
+    public void quantityLoop(UnitPairState pair, Blackhole blackhole){
+        for (int i = 0; i < size; i++) {
+            Quantity quantity = new Quantity(source[i], pair.from, pair.name, false);
+            quantity.convertUnitTo(pair.to);
+            blackhole.consume(quantity.getValue());}}
+}
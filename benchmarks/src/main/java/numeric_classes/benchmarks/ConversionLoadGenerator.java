@@ -0,0 +1,118 @@
+package numeric_classes.benchmarks;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import numeric_classes.ConversionClient;
+import numeric_classes.ConversionServer;
+import numeric_classes.Unit;
+
+/**
+ * Load generator of ConversionServer: throughput and latency percentiles on localhost.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar numeric_classes.benchmarks.ConversionLoadGenerator
+ * [address] [connections] [valuesPerRequest] [pipelineDepth] [seconds]}, where
+ * address is host:port, unix:/path/to/socket, or "embedded" (the default)
+ * to start a server in this JVM on a free loopback port.
+ * <p>
+ * Each connection sends pipelineDepth requests (MILE to KILOMETER), then
+ * reads their responses, again and again. The latency of a request runs
+ * from its send to its receive; each one is kept for the percentiles with
+ * probability 1/16, drawn per request so the sample does not line up with
+ * the pipeline. Throughput is over the measured time, drain included.
+ */
+public class ConversionLoadGenerator {
+    private static final int SAMPLE_PERIOD = 16, MAX_SAMPLES = 1 << 20;
+
+    public static void main(String[] args) throws Exception {
+        String target = args.length > 0 ? args[0] : "embedded";
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int valuesPerRequest = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        int depth = args.length > 3 ? Integer.parseInt(args[3]) : 8;
+        long seconds = args.length > 4 ? Long.parseLong(args[4]) : 10;
+
+        ConversionServer server = null;
+        SocketAddress address;
+        if (target.equals("embedded")) {
+            server = ConversionServer.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            address = server.getAddress();}
+        else if (target.startsWith("unix:")) {address = UnixDomainSocketAddress.of(target.substring(5));}
+        else {
+            int colon = target.lastIndexOf(':');
+            address = new InetSocketAddress(target.substring(0, colon), Integer.parseInt(target.substring(colon + 1)));}
+
+        Worker[] workers = new Worker[connections];
+        long started = System.nanoTime(), deadline = started + TimeUnit.SECONDS.toNanos(seconds);
+        for (int i = 0; i < connections; i++) {
+            workers[i] = new Worker(address, valuesPerRequest, depth, deadline, i);
+            workers[i].start();}
+        long requests = 0, samples = 0;
+        for (Worker worker : workers) {
+            worker.join();
+            if (worker.failure != null) {throw worker.failure;}
+            requests += worker.requests;
+            samples += worker.samples;}
+        double elapsed = (System.nanoTime() - started) / 1e9;
+
+        long[] latencies = new long[(int) samples];
+        int filled = 0;
+        for (Worker worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, filled, worker.samples);
+            filled += worker.samples;}
+        Arrays.sort(latencies);
+
+        System.out.printf("%d connections, %d values per request, pipeline depth %d, %.2f s%n", connections, valuesPerRequest, depth, elapsed);
+        System.out.printf("%.0f requests/s, %.0f values/s%n", requests / elapsed, requests * (double) valuesPerRequest / elapsed);
+        System.out.printf("latency p50 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us%n",
+                percentile(latencies, 0.5), percentile(latencies, 0.99), percentile(latencies, 0.999), percentile(latencies, 1));
+        if (server != null) {
+            System.out.printf("server: %d requests in %d bulk calls%n", server.getRequests(), server.getBulkCalls());
+            server.close();}
+    }
+
+    private static double percentile(long[] sorted, double fraction){
+        if (sorted.length == 0) {return 0;}
+        int index = (int) Math.min(sorted.length - 1, Math.max(0, Math.ceil(sorted.length * fraction) - 1));
+        return sorted[index] / 1e3;}
+
+    private static final class Worker extends Thread {
+        private final SocketAddress address;
+        private final int valuesPerRequest, depth;
+        private final long deadline;
+        private final SplittableRandom random;
+        private final long[] latencies = new long[MAX_SAMPLES];
+        private long requests;
+        private int samples;
+        private Exception failure;
+
+        private Worker(SocketAddress address, int valuesPerRequest, int depth, long deadline, int index) {
+            super("load-generator-" + index);
+            this.address = address;
+            this.valuesPerRequest = valuesPerRequest;
+            this.depth = depth;
+            this.deadline = deadline;
+            this.random = new SplittableRandom(index);
+        }
+
+        @Override
+        public void run(){
+            double[] values = new double[valuesPerRequest], converted = new double[valuesPerRequest];
+            for (int i = 0; i < values.length; i++) {values[i] = random.nextDouble(0, 1000);}
+            long[] sent = new long[depth];
+            try (ConversionClient client = ConversionClient.connect(address)) {
+                while (System.nanoTime() < deadline) {
+                    for (int d = 0; d < depth; d++) {
+                        client.send(values, 0, valuesPerRequest, Unit.MILE, Unit.KILOMETER);
+                        sent[d] = System.nanoTime();}
+                    client.flush();
+                    for (int d = 0; d < depth; d++) {
+                        client.receive(converted, 0);
+                        requests++;
+                        if (random.nextInt(SAMPLE_PERIOD) == 0 && samples < MAX_SAMPLES) {latencies[samples++] = System.nanoTime() - sent[d];}}}}
+            catch (Exception e) {failure = e;}}
+    }
+}
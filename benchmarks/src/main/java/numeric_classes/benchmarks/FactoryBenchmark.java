@@ -0,0 +1,62 @@
+package numeric_classes.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import numeric_classes.Quantity;
+import numeric_classes.Unit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of creating the object of each Quantity.As* static factory method,
+ * and of each Unit.DrewFor* random picker. Run with the gc profiler to see
+ * the bytes allocated per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FactoryBenchmark {
+    public double value = 0.5; // Valid for every factory, efficiencies included
+
+    // Quantity factories:
+    @Benchmark public Quantity asScalarGravity() {return Quantity.AsScalarGravity();}
+    @Benchmark public Quantity asVectorialGravity() {return Quantity.AsVectorialGravity();}
+    @Benchmark public Quantity asAtmosphericPressure() {return Quantity.AsAtmosphericPressure();}
+    @Benchmark public Quantity asTheElectronCharge() {return Quantity.AsTheElectronCharge();}
+    @Benchmark public Quantity asTheElectronMass() {return Quantity.AsTheElectronMass();}
+    @Benchmark public Quantity asSide() {return Quantity.AsSide(value);}
+    @Benchmark public Quantity asPerimeter() {return Quantity.AsPerimeter(value);}
+    @Benchmark public Quantity asDiagonal() {return Quantity.AsDiagonal(value);}
+    @Benchmark public Quantity asDistance() {return Quantity.AsDistance(value);}
+    @Benchmark public Quantity asScalarDisplacement() {return Quantity.AsScalarDisplacement(value);}
+    @Benchmark public Quantity asTimeSpan() {return Quantity.AsTimeSpan(value);}
+    @Benchmark public Quantity asTimeInstant() {return Quantity.AsTimeInstant(value);}
+    @Benchmark public Quantity asSpeed() {return Quantity.AsSpeed(value);}
+    @Benchmark public Quantity asMass() {return Quantity.AsMass(value);}
+    @Benchmark public Quantity asSpringConstant() {return Quantity.AsSpringConstant(value);}
+    @Benchmark public Quantity asFrictionConstant() {return Quantity.AsFrictionConstant(value);}
+    @Benchmark public Quantity asEfficiencyNotPercentage() {return Quantity.AsEfficiencyNotPercentage(value);}
+    @Benchmark public Quantity asEfficiencyAsPercentage() {return Quantity.AsEfficiencyAsPercentage(value);}
+    @Benchmark public Quantity asArea() {return Quantity.AsArea(value);}
+    @Benchmark public Quantity asVolume() {return Quantity.AsVolume(value);}
+    @Benchmark public Quantity asVelocity() {return Quantity.AsVelocity(value);}
+    @Benchmark public Quantity asForce() {return Quantity.AsForce(value);}
+    @Benchmark public Quantity asWeight() {return Quantity.AsWeight(value);}
+
+
+    // Unit random pickers:
+    @Benchmark public Unit drewForVehicleDistanceFromAnySystem() {return Unit.DrewForVehicleDistanceFromAnySystem();}
+    @Benchmark public Unit drewForAstronomicDistanceFromAnySystem() {return Unit.DrewForAstronomicDistanceFromAnySystem();}
+    @Benchmark public Unit drewForVehicleMassFromAnySystem() {return Unit.DrewForVehicleMassFromAnySystem();}
+    @Benchmark public Unit drewForSmallAreas() {return Unit.DrewForSmallAreas();}
+    @Benchmark public Unit drewForSmallLengths() {return Unit.DrewForSmallLengths();}
+}
@@ -0,0 +1,67 @@
+package numeric_classes.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.text.DecimalFormat;
+import java.util.concurrent.TimeUnit;
+import numeric_classes.Quantity;
+import numeric_classes.QuantityFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Formatting throughput: Quantity.toString, QuantityFormatter into reused
+ * targets, and the former DecimalFormat-per-call way as the baseline.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FormattingBenchmark {
+    @Param({"DISTANCE", "ELECTRON_MASS", "ATMOSPHERIC_PRESSURE"})
+    public String quantity;
+
+    private Quantity subject;
+    private final StringBuilder text = new StringBuilder(64);
+    private final ByteBuffer bytes = ByteBuffer.allocate(64);
+    private final QuantityFormatter labeledScientific = QuantityFormatter.DEFAULT
+            .withPrecision(3).withNotation(QuantityFormatter.Notation.AUTO).withLabel(QuantityFormatter.Label.PORTUGUESE);
+
+    @Setup
+    public void create(){
+        switch (quantity) {
+            case "DISTANCE": subject = Quantity.AsDistance(1234.56); break;
+            case "ELECTRON_MASS": subject = Quantity.AsTheElectronMass(); break;
+            default: subject = Quantity.AsAtmosphericPressure();}}
+
+    @Benchmark
+    public String decimalFormatPerCall() {return new DecimalFormat("#.#").format(subject.getValue()) + " " + subject.getUnitSymbol();}
+
+    @Benchmark
+    public String toStringCall() {return subject.toString();}
+
+    @Benchmark
+    public StringBuilder formatterToStringBuilder(){
+        text.setLength(0);
+        return QuantityFormatter.DEFAULT.formatTo(subject, text);}
+
+    @Benchmark
+    public StringBuilder labeledScientificToStringBuilder(){
+        text.setLength(0);
+        return labeledScientific.formatTo(subject, text);}
+
+    @Benchmark
+    public ByteBuffer formatterToByteBuffer(){
+        bytes.clear();
+        return QuantityFormatter.DEFAULT.formatTo(subject, bytes);}
+}
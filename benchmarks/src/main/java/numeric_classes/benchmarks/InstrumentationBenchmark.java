@@ -0,0 +1,99 @@
+package numeric_classes.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import numeric_classes.BulkConversion;
+import numeric_classes.Quantity;
+import numeric_classes.QuantityFormatter;
+import numeric_classes.QuantityName;
+import numeric_classes.Unit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of QuantityMetrics on the instrumented paths.
+ * <p>
+ * Each path is run in a fork with the metrics off and in one with them on.
+ * The conversion paths also have a "baseline", doing the same work through
+ * the public primitives (Unit.converterTo and a plain loop) with no
+ * QuantityMetrics.ENABLED guard at all, so baseline against disabled is the
+ * cost of the guard. Formatting has no unguarded entry point: there, only
+ * disabled against enabled is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class InstrumentationBenchmark {
+    private static final String OFF = "-Dnumeric_classes.metrics=false", ON = "-Dnumeric_classes.metrics=true";
+
+    private final Quantity quantity = new Quantity(42.5, Unit.MILE, QuantityName.DISTANCE, false);
+    private final double[] values = new double[1024];
+    private final StringBuilder text = new StringBuilder(64);
+
+    private double convert(){
+        quantity.convertUnitTo(Unit.KILOMETER);
+        quantity.convertUnitTo(Unit.MILE);
+        return quantity.getValue();}
+
+    private double convertBaseline(){
+        convertUnguarded(Unit.KILOMETER);
+        convertUnguarded(Unit.MILE);
+        return quantity.getValue();}
+
+    /** The steps of Quantity.convertUnitTo, as the API exposes them. */
+    private void convertUnguarded(Unit to){
+        Unit from = quantity.getUnit();
+        if (!Unit.isConvertible(from, to)) {throw new Quantity.ConflictingQuantityFamiliesException();}
+        double converted = from.converterTo(to).convert(quantity.getValue());
+        quantity.setUnit(to);
+        quantity.setValue(converted);}
+
+    private double[] convertBulkBaseline(){
+        scale(Unit.MILE.converterTo(Unit.KILOMETER).getScale());
+        scale(Unit.KILOMETER.converterTo(Unit.MILE).getScale());
+        return values;}
+
+    private void scale(double factor){
+        for (int i = 0; i < values.length; i++) {values[i] *= factor;}}
+
+    private double[] convertBulk(){
+        BulkConversion.convert(values, Unit.MILE, Unit.KILOMETER);
+        BulkConversion.convert(values, Unit.KILOMETER, Unit.MILE);
+        return values;}
+
+    private StringBuilder format(){
+        text.setLength(0);
+        return QuantityFormatter.DEFAULT.formatTo(quantity, text);}
+
+    @Benchmark @Fork(value = 1, jvmArgsAppend = OFF)
+    public double convertUnitToBaseline() {return convertBaseline();}
+
+    @Benchmark @Fork(value = 1, jvmArgsAppend = OFF)
+    public double convertUnitToDisabled() {return convert();}
+
+    @Benchmark @Fork(value = 1, jvmArgsAppend = ON)
+    public double convertUnitToEnabled() {return convert();}
+
+    @Benchmark @Fork(value = 1, jvmArgsAppend = OFF)
+    public double[] bulkBaseline() {return convertBulkBaseline();}
+
+    @Benchmark @Fork(value = 1, jvmArgsAppend = OFF)
+    public double[] bulkDisabled() {return convertBulk();}
+
+    @Benchmark @Fork(value = 1, jvmArgsAppend = ON)
+    public double[] bulkEnabled() {return convertBulk();}
+
+    @Benchmark @Fork(value = 1, jvmArgsAppend = OFF)
+    public StringBuilder formatDisabled() {return format();}
+
+    @Benchmark @Fork(value = 1, jvmArgsAppend = ON)
+    public StringBuilder formatEnabled() {return format();}
+}
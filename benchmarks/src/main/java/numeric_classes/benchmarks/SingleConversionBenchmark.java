@@ -0,0 +1,54 @@
+package numeric_classes.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import numeric_classes.Quantity;
+import numeric_classes.Unit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One value converted at a time, for every UnitSystem combination.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SingleConversionBenchmark {
+    public double value = 42.5;
+
+    /** A fresh Quantity converted once: the usual path of callers. */
+    @Benchmark
+    public double convertUnitTo(UnitPairState pair){
+        Quantity quantity = new Quantity(value, pair.from, pair.name, false);
+        quantity.convertUnitTo(pair.to);
+        return quantity.getValue();}
+
+    /** The same Quantity converted there and back, with no allocation. */
+    @Benchmark
+    public double convertUnitToAndBack(UnitPairState pair, QuantityState state){
+        state.quantity.convertUnitTo(pair.to);
+        state.quantity.convertUnitTo(pair.from);
+        return state.quantity.getValue();}
+
+    /** The bare table lookup and multiplication. */
+    @Benchmark
+    public double factor(UnitPairState pair) {return value * Unit.factor(pair.from, pair.to);}
+
+    @State(Scope.Thread)
+    public static class QuantityState {
+        Quantity quantity;
+
+        @Setup
+        public void create(UnitPairState pair) {quantity = new Quantity(42.5, pair.from, pair.name, false);}
+    }
+}
@@ -0,0 +1,41 @@
+package numeric_classes.benchmarks;
+
+import numeric_classes.QuantityName;
+import numeric_classes.Unit;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The unit pair a conversion benchmark runs on.
+ * <p>
+ * One pair of the same family for every (from, to) combination of
+ * Unit.UnitSystem that exists among the registered units. Standard to
+ * Standard only exists for currents, which have no QuantityName yet, so it
+ * is left out.
+ */
+@State(Scope.Thread)
+public class UnitPairState {
+    @Param({
+        "METER:DECAMETER", "METER:DECIMETER", "KILOGRAM:GRAM", "SECOND:MINUTE", "METER:INCH", "METER:ASTRO_UNIT",
+        "DECAMETER:METER", "DECAMETER:HECTOMETER", "DECAMETER:DECIMETER", "DECAGRAM:GRAM", "DECAMETER:INCH", "DECAMETER:ASTRO_UNIT",
+        "DECIMETER:METER", "DECIMETER:DECAMETER", "DECIMETER:CENTIMETER", "DECIGRAM:GRAM", "DECIMETER:INCH", "DECIMETER:ASTRO_UNIT",
+        "GRAM:KILOGRAM", "GRAM:DECAGRAM", "GRAM:DECIGRAM", "GRAM:OUNCE", "GRAM:TONNE",
+        "MINUTE:SECOND", "MINUTE:HOUR", "KILOMETER_PER_HOUR:MILE_PER_HOUR", "KILOMETER_PER_HOUR:MACH",
+        "INCH:METER", "INCH:DECAMETER", "INCH:DECIMETER", "OUNCE:GRAM", "MILE_PER_HOUR:KILOMETER_PER_HOUR", "INCH:FOOT", "INCH:ASTRO_UNIT",
+        "ASTRO_UNIT:METER", "ASTRO_UNIT:DECAMETER", "ASTRO_UNIT:DECIMETER", "TONNE:GRAM", "MACH:KILOMETER_PER_HOUR", "ASTRO_UNIT:INCH", "ASTRO_UNIT:LIGHT_YEAR"})
+    public String pair;
+
+    public Unit from, to;
+    public QuantityName name;
+
+    @Setup(Level.Trial)
+    public void resolve(){
+        from = Unit.valueOf(pair.substring(0, pair.indexOf(':')));
+        to = Unit.valueOf(pair.substring(pair.indexOf(':') + 1));
+        for (QuantityName candidate : QuantityName.values()) {
+            if (candidate.getFamily() == from.getFamily()) {name = candidate; return;}}
+        throw new IllegalStateException("No QuantityName for " + from.getFamily());}
+}
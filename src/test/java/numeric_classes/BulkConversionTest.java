@@ -0,0 +1,97 @@
+package numeric_classes;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+/**
+ * BulkConversion on overlapping array ranges and on heap and direct buffers.
+ */
+class BulkConversionTest {
+    private static double[] ramp(int length){
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {values[i] = i;}
+        return values;}
+
+    /** What the conversion gives when source and destination do not share storage. */
+    private static double[] expected(double[] values, int srcOffset, int dstOffset, int length, Unit from, Unit to){
+        double[] copy = values.clone();
+        double[] source = Arrays.copyOfRange(values, srcOffset, srcOffset + length);
+        for (int i = 0; i < length; i++) {copy[dstOffset + i] = from.converterTo(to).convert(source[i]);}
+        return copy;}
+
+    @Test
+    void overlappingRangesInBothDirections(){
+        for (Unit to : new Unit[] {Unit.METER, Unit.KILOMETER}) { // The copy path and the converting one
+            for (int shift : new int[] {-3, -1, 1, 3}) {
+                double[] values = ramp(32);
+                int srcOffset = 8, dstOffset = 8 + shift;
+                double[] expected = expected(values, srcOffset, dstOffset, 16, Unit.METER, to);
+                BulkConversion.convert(values, srcOffset, Unit.METER, values, dstOffset, to, 16);
+                assertArrayEquals(expected, values, 1e-12, "shift " + shift + " to " + to);}}
+
+        double[] temperatures = ramp(10); // Affine, so the offset is applied once per value
+        double[] expected = expected(temperatures, 0, 2, 8, Unit.CELSIUS, Unit.KELVIN);
+        BulkConversion.convert(temperatures, 0, Unit.CELSIUS, temperatures, 2, Unit.KELVIN, 8);
+        assertArrayEquals(expected, temperatures, 1e-12);}
+
+    @Test
+    void rangesAreChecked(){
+        double[] values = new double[8];
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> BulkConversion.convert(values, 4, Unit.METER, values, 0, Unit.KILOMETER, 5));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> BulkConversion.convert(values, -1, 2, Unit.METER, Unit.KILOMETER));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> BulkConversion.convert(values, Unit.METER, new double[4], Unit.KILOMETER));}
+
+    @Test
+    void heapBuffers(){
+        DoubleBuffer src = DoubleBuffer.wrap(ramp(10)), dst = DoubleBuffer.allocate(12);
+        src.position(2);
+        dst.position(1);
+        BulkConversion.convert(src, Unit.METER, dst, Unit.KILOMETER);
+        assertEquals(10, src.position());
+        assertEquals(9, dst.position());
+        for (int i = 0; i < 8; i++) {assertEquals((i + 2) / 1000.0, dst.get(1 + i), 1e-15);}
+
+        double[] shared = ramp(20); // Slices of one array, the destination ahead of the source
+        DoubleBuffer from = DoubleBuffer.wrap(shared, 0, 10).slice(), to = DoubleBuffer.wrap(shared, 3, 10).slice();
+        double[] expected = expected(shared, 0, 3, 10, Unit.KILOMETER, Unit.METER);
+        BulkConversion.convert(from, Unit.KILOMETER, to, Unit.METER);
+        assertArrayEquals(expected, shared, 1e-9);
+
+        assertThrows(BufferOverflowException.class,
+                () -> BulkConversion.convert(DoubleBuffer.allocate(4), Unit.METER, DoubleBuffer.allocate(3), Unit.KILOMETER));}
+
+    @Test
+    void directBuffers(){
+        DoubleBuffer src = ByteBuffer.allocateDirect(8 * 10).asDoubleBuffer(), dst = ByteBuffer.allocateDirect(8 * 10).asDoubleBuffer();
+        for (int i = 0; i < 10; i++) {src.put(i, i);}
+        BulkConversion.convert(src, Unit.CELSIUS, dst, Unit.KELVIN);
+        assertEquals(10, src.position());
+        assertEquals(10, dst.position());
+        for (int i = 0; i < 10; i++) {assertEquals(i + 273.15, dst.get(i), 1e-12);}
+
+        DoubleBuffer heap = DoubleBuffer.allocate(10); // Direct into heap: the element path
+        src.rewind();
+        BulkConversion.convert(src, Unit.METER, heap, Unit.KILOMETER);
+        for (int i = 0; i < 10; i++) {assertEquals(i / 1000.0, heap.get(i), 1e-15);}
+
+        dst.position(4);
+        BulkConversion.convert(dst, Unit.KELVIN, Unit.CELSIUS); // In place, from the position on
+        assertEquals(4, dst.position());
+        assertEquals(3 + 273.15, dst.get(3), 1e-12);
+        for (int i = 4; i < 10; i++) {assertEquals(i, dst.get(i), 1e-12);}}
+
+    @Test
+    void inPlaceHeapBufferKeepsItsPosition(){
+        DoubleBuffer values = DoubleBuffer.wrap(ramp(6));
+        values.position(2);
+        BulkConversion.convert(values, Unit.KILOMETER, Unit.METER);
+        assertEquals(2, values.position());
+        assertArrayEquals(new double[] {0, 1, 2000, 3000, 4000, 5000}, values.array(), 0.0);}
+}
@@ -0,0 +1,52 @@
+package numeric_classes;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+/**
+ * ConversionClient against the embedded server and against a server giving bad replies.
+ */
+class ConversionClientTest {
+    private static final InetSocketAddress LOOPBACK = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+    @Test
+    void unitNamesAndConversions() throws IOException {
+        try (ConversionServer server = ConversionServer.start(LOOPBACK);
+                ConversionClient client = ConversionClient.connect(server.getAddress())) {
+            assertArrayEquals(Arrays.stream(Unit.values()).map(Unit::name).toArray(String[]::new), client.fetchUnitNames());
+            double[] values = {1, 2.5}, converted = new double[2];
+            client.send(values, 0, 2, Unit.KILOMETER, Unit.METER);
+            assertEquals(2, client.receive(converted, 0));
+            assertArrayEquals(new double[] {1000, 2500}, converted, 1e-9);}}
+
+    /** A server reading one UNITS request, then answering with the given header. */
+    private static void assertUnitReplyRefused(byte status, int id) throws Exception {
+        try (ServerSocketChannel fake = ServerSocketChannel.open().bind(LOOPBACK)) {
+            Thread replier = new Thread(() -> {
+                try (SocketChannel channel = fake.accept()) {
+                    ByteBuffer request = ByteBuffer.allocate(5);
+                    while (request.hasRemaining()) {if (channel.read(request) < 0) {return;}}
+                    ByteBuffer reply = ByteBuffer.allocate(ConversionServer.RESPONSE_HEADER).put(status).putInt(id).putInt(0).flip();
+                    while (reply.hasRemaining()) {channel.write(reply);}
+                    channel.read(ByteBuffer.allocate(1));} // Until the client closes
+                catch (IOException e) {}});
+            replier.start();
+            try (ConversionClient client = ConversionClient.connect(fake.getLocalAddress())) {
+                assertThrows(IOException.class, client::fetchUnitNames);}
+            replier.join();}}
+
+    @Test
+    void unitRequestChecksTheReply() throws Exception {
+        assertUnitReplyRefused(ConversionServer.BAD_REQUEST, 0);
+        assertUnitReplyRefused(ConversionServer.OK, 7);}
+}
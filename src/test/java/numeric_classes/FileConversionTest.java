@@ -0,0 +1,53 @@
+package numeric_classes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Files converted to SI and read back.
+ */
+class FileConversionTest {
+    private static final double[] VALUES = {1.23456, 7.0, 0.000123456789, 9.87654321e12};
+    private static final Unit[] UNITS = {Unit.MILIGRAM, Unit.SQUARE_CENTIMETER, Unit.ELECTRON_VOLT};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void textOutputRoundTripsByDefault() throws IOException {
+        StringBuilder input = new StringBuilder();
+        for (Unit unit : UNITS) {
+            for (double value : VALUES) {input.append(value).append(',').append(unit.getSymbol()).append('\n');}}
+        Path in = directory.resolve("in.csv"), out = directory.resolve("out.csv");
+        Files.write(in, input.toString().getBytes(StandardCharsets.UTF_8));
+
+        FileConversion.Report report = FileConversion.toSI().withThreads(2).convert(in, out);
+        assertEquals(UNITS.length * VALUES.length, report.getRows());
+        assertEquals(0, report.getRejectedRows());
+
+        List<String> rows = Files.readAllLines(out, StandardCharsets.UTF_8);
+        int row = 0;
+        for (Unit unit : UNITS) {
+            Unit standard = Unit.standardOf(unit.getFamily());
+            for (double value : VALUES) {
+                String[] fields = rows.get(row++).split(",");
+                assertEquals(standard, UnitParser.lookup(fields[1]));
+                assertEquals(unit.converterTo(standard).convert(value), Double.parseDouble(fields[0]), 0.0, value + " " + unit.getSymbol());}}}
+
+    @Test
+    void precisionIsAnOptIn() throws IOException {
+        Path in = directory.resolve("in.csv"), out = directory.resolve("out.csv");
+        Files.write(in, "1.23456,km\n".getBytes(StandardCharsets.UTF_8));
+        FileConversion.toSI().withPrecision(1).convert(in, out);
+        assertEquals("1234.6,m", Files.readAllLines(out, StandardCharsets.UTF_8).get(0));
+        assertThrows(IllegalArgumentException.class, () -> FileConversion.toSI().withPrecision(16));
+        assertThrows(IllegalArgumentException.class, () -> FileConversion.toSI().withPrecision(-1));}
+}
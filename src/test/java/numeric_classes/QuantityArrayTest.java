@@ -0,0 +1,81 @@
+package numeric_classes;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Views, copies and run-based conversion of a QuantityArray.
+ */
+class QuantityArrayTest {
+    private static QuantityArray distances(double... metres){
+        QuantityArray array = new QuantityArray(2, false);
+        for (double value : metres) {array.add(value, Unit.METER, QuantityName.DISTANCE);}
+        return array;}
+
+    @Test
+    void viewsReadAndWriteThroughToTheColumns(){
+        QuantityArray array = distances(1, 2, 3);
+        Quantity view = array.get(1);
+        assertEquals(2, view.getValue(), 0.0);
+        assertEquals(QuantityName.DISTANCE, view.getName());
+
+        view.setValue(20);
+        assertEquals(20, array.getValue(1), 0.0);
+        view.convertUnitTo(Unit.KILOMETER);
+        assertEquals(Unit.KILOMETER, array.getUnit(1));
+        assertEquals(0.02, array.getValue(1), 1e-15);
+        assertEquals(Unit.METER, array.getUnit(0));
+
+        array.setValue(1, 5);
+        assertEquals(5, view.getValue(), 0.0);
+        assertThrows(Quantity.NegativeScalarException.class, () -> view.setValue(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> array.get(3));}
+
+    @Test
+    void valueArrayIsATrimmedCopy(){
+        QuantityArray array = distances(1, 2, 3);
+        double[] values = array.toValueArray();
+        assertArrayEquals(new double[] {1, 2, 3}, values, 0.0);
+        values[0] = 100;
+        assertEquals(1, array.getValue(0), 0.0);}
+
+    @Test
+    void convertsMixedUnitRuns(){
+        QuantityArray array = new QuantityArray(false);
+        array.add(1, Unit.KILOMETER, QuantityName.DISTANCE);
+        array.add(2, Unit.KILOMETER, QuantityName.DISTANCE);
+        array.add(500, Unit.METER, QuantityName.SIDE);
+        array.add(1, Unit.MILE, QuantityName.DISTANCE);
+        array.add(3, Unit.KILOMETER, QuantityName.HEIGHT);
+        array.convertUnitTo(Unit.METER);
+        assertArrayEquals(new double[] {1000, 2000, 500, Unit.MILE.getConversionFactor(), 3000}, array.toValueArray(), 1e-9);
+        for (int i = 0; i < array.size(); i++) {assertEquals(Unit.METER, array.getUnit(i));}
+        assertEquals(QuantityName.HEIGHT, array.getName(4));}
+
+    @Test
+    void failedConversionLeavesTheArrayUnchanged(){
+        QuantityArray array = distances(1, 2);
+        array.add(1, Unit.KILOGRAM, QuantityName.MASS);
+        assertThrows(Quantity.ConflictingQuantityFamiliesException.class, () -> array.convertUnitTo(Unit.KILOMETER));
+        assertArrayEquals(new double[] {1, 2, 1}, array.toValueArray(), 0.0);
+        assertEquals(Unit.METER, array.getUnit(0));}
+
+    @Test
+    void scalarsDoNotConvertBelowZero(){
+        QuantityArray temperatures = new QuantityArray(false);
+        temperatures.add(20, Unit.CELSIUS, QuantityName.TEMPERATURE);
+        temperatures.add(-300, Unit.CELSIUS, QuantityName.TEMPERATURE);
+        assertThrows(Quantity.NegativeScalarException.class, () -> temperatures.convertUnitTo(Unit.KELVIN));
+        assertEquals(Unit.CELSIUS, temperatures.getUnit(0));
+        assertEquals(-300, temperatures.getValue(1), 0.0);
+        assertThrows(Quantity.NegativeScalarException.class,
+                () -> new Quantity(-300, Unit.CELSIUS, QuantityName.TEMPERATURE, false).convertUnitTo(Unit.KELVIN));
+
+        QuantityArray vectors = new QuantityArray(true);
+        vectors.add(-300, Unit.CELSIUS, QuantityName.TEMPERATURE);
+        vectors.convertUnitTo(Unit.KELVIN);
+        assertEquals(-26.85, vectors.getValue(0), 1e-9);}
+}
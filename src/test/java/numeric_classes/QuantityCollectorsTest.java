@@ -0,0 +1,44 @@
+package numeric_classes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Aggregations over quantities in mixed units.
+ */
+class QuantityCollectorsTest {
+    private static Quantity temperature(double value, Unit unit) {return new Quantity(value, unit, QuantityName.TEMPERATURE, false);}
+
+    @Test
+    void sumOfAffineScalesMatchesQuantityAdd(){
+        Quantity ten = temperature(10, Unit.CELSIUS), twenty = temperature(20, Unit.CELSIUS);
+        Quantity sum = Stream.of(ten, twenty).collect(QuantityCollectors.summing(Unit.CELSIUS));
+        assertEquals(ten.add(twenty).getValue(), sum.getValue(), 1e-9);
+        assertEquals(30, sum.getValue(), 1e-9);
+        assertEquals(576.3, Stream.of(ten, twenty).collect(QuantityCollectors.summing(Unit.KELVIN)).getValue(), 1e-9);
+        assertEquals(20, Stream.of(ten, temperature(50, Unit.FAHRENHEIT)).collect(QuantityCollectors.summing(Unit.CELSIUS)).getValue(), 1e-9);
+        assertEquals(0, Stream.<Quantity>empty().collect(QuantityCollectors.summing(Unit.CELSIUS)).getValue(), 0.0);}
+
+    @Test
+    void meanMinimumAndMaximumOfAffineScales(){
+        Stream<Quantity> temperatures = Stream.of(temperature(10, Unit.CELSIUS), temperature(68, Unit.FAHRENHEIT), temperature(303.15, Unit.KELVIN));
+        QuantityStatistics statistics = temperatures.collect(QuantityCollectors.summarizing(QuantityFamily.TEMPERATURE));
+        assertEquals(20, statistics.getAverage(Unit.CELSIUS).getValue(), 1e-9);
+        assertEquals(10, statistics.getMin(Unit.CELSIUS).getValue(), 1e-9);
+        assertEquals(30, statistics.getMax(Unit.CELSIUS).getValue(), 1e-9);}
+
+    @Test
+    void sumOfLinearUnits(){
+        Quantity sum = Stream.of(Quantity.AsDistance(500), new Quantity(1, Unit.KILOMETER, QuantityName.DISTANCE, false))
+                .collect(QuantityCollectors.summing(Unit.KILOMETER));
+        assertEquals(1.5, sum.getValue(), 1e-12);}
+
+    @Test
+    void histogramChecksItsArguments(){
+        assertThrows(IllegalArgumentException.class, () -> QuantityCollectors.histogram(Unit.METER, 0, 10, 0));
+        assertThrows(IllegalArgumentException.class, () -> QuantityCollectors.histogram(Unit.METER, 10, 0, 5));
+        assertThrows(IllegalArgumentException.class, () -> QuantityCollectors.histogram(Unit.METER, 0, Double.POSITIVE_INFINITY, 5));}
+}
@@ -0,0 +1,33 @@
+package numeric_classes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Packed dimension arithmetic, lane by lane.
+ */
+class QuantityFamilyTest {
+    private static long dimensions(int... exponents) {return QuantityFamily.pack(exponents);}
+
+    @Test
+    void lanesAddAndSubtractWithoutCarry(){
+        long a = dimensions(1, -1, 127, -128, 0, 5, -5), b = dimensions(-2, -3, 0, 0, 4, -5, 5);
+        assertEquals(dimensions(-1, -4, 127, -128, 4, 0, 0), QuantityFamily.multiply(a, b));
+        assertEquals(dimensions(3, 2, 127, -128, -4, 10, -10), QuantityFamily.divide(a, b));
+        assertEquals(QuantityFamily.ENERGY.getDimensions(),
+                QuantityFamily.multiply(QuantityFamily.FORCE.getDimensions(), QuantityFamily.LENGTH.getDimensions()));}
+
+    @Test
+    void laneOverflowThrows(){
+        long top = dimensions(0, 100), bottom = dimensions(0, -100), one = dimensions(0, 1);
+        assertThrows(ArithmeticException.class, () -> QuantityFamily.multiply(top, top));
+        assertThrows(ArithmeticException.class, () -> QuantityFamily.multiply(bottom, bottom));
+        assertThrows(ArithmeticException.class, () -> QuantityFamily.divide(top, bottom));
+        assertThrows(ArithmeticException.class, () -> QuantityFamily.divide(bottom, top));
+        assertEquals(dimensions(0, -128), QuantityFamily.divide(dimensions(0, -127), one));
+        assertThrows(ArithmeticException.class, () -> QuantityFamily.divide(dimensions(0, -128), one));
+        assertThrows(ArithmeticException.class, () -> QuantityFamily.multiply(dimensions(0, 127), one));
+        assertThrows(ArithmeticException.class, () -> QuantityFamily.pow(top, 2));}
+}
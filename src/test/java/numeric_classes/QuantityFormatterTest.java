@@ -0,0 +1,71 @@
+package numeric_classes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/**
+ * QuantityFormatter against DecimalFormat, which rounds the exact binary value half-even.
+ */
+class QuantityFormatterTest {
+    private static final DecimalFormatSymbols SYMBOLS = DecimalFormatSymbols.getInstance(Locale.ROOT);
+    private static final QuantityFormatter FORMATTER = QuantityFormatter.DEFAULT.withDecimalSeparator('.');
+
+    @Test
+    void toStringMatchesDecimalFormatOverHundredths(){
+        DecimalFormat decimalFormat = new DecimalFormat("#.#");
+        for (int k = 0; k < 100000; k++) {
+            Quantity distance = new Quantity(k / 100.0, Unit.METER, QuantityName.DISTANCE, false);
+            assertEquals(decimalFormat.format(k / 100.0) + " m", distance.toString(), "k = " + k);}}
+
+    @Test
+    void toStringMatchesDecimalFormatOnLargeAndNegativeValues(){
+        DecimalFormat decimalFormat = new DecimalFormat("#.#");
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 20000; i++) {
+            double value = random.nextDouble(-1, 1) * Math.pow(10, random.nextInt(-3, 40));
+            Quantity quantity = new Quantity(value, Unit.METER, QuantityName.POSITION, true);
+            assertEquals(decimalFormat.format(value) + " m", quantity.toString(), "value = " + value);}
+        for (int e = 50; e <= 1023; e++) {
+            double value = Math.scalb(1.0, e) * 1.1;
+            assertEquals(decimalFormat.format(value), FORMATTER.formatTo(value, Unit.DIMENSIONLESS, null, new StringBuilder()).toString());}
+        assertEquals("100000000000000000000 m", new Quantity(1e20, Unit.METER, QuantityName.DISTANCE, false).toString());
+        assertEquals("-0 m", new Quantity(-0.01, Unit.METER, QuantityName.POSITION, true).toString());}
+
+    @Test
+    void fixedNotationMatchesDecimalFormatAtEveryPrecision(){
+        SplittableRandom random = new SplittableRandom(1);
+        for (int precision = 0; precision <= 6; precision++) {
+            DecimalFormat decimalFormat = new DecimalFormat(precision == 0 ? "#" : "#." + "#".repeat(precision), SYMBOLS);
+            QuantityFormatter formatter = FORMATTER.withPrecision(precision);
+            for (int i = 0; i < 20000; i++) {
+                // Values with one digit more than the precision, so ties are frequent
+                double value = random.nextInt(-10_000_000, 10_000_000) / Math.pow(10, precision + 1);
+                assertEquals(decimalFormat.format(value), formatter.formatTo(value, Unit.DIMENSIONLESS, null, new StringBuilder()).toString(),
+                        "value = " + value + ", precision = " + precision);}
+            for (int i = 0; i < 2000; i++) { // Large magnitudes, past the long range of the scaled value
+                double value = random.nextDouble(-1, 1) * Math.pow(10, random.nextInt(10, 30));
+                assertEquals(decimalFormat.format(value), formatter.formatTo(value, Unit.DIMENSIONLESS, null, new StringBuilder()).toString(),
+                        "value = " + value + ", precision = " + precision);}}}
+
+    /** Against BigDecimal: DecimalFormat's exponential form rounds exact ties up (9645 to "9.65E3"). */
+    @Test
+    void scientificNotationRoundsTheExactValueHalfEven(){
+        SplittableRandom random = new SplittableRandom(2);
+        for (int precision = 1; precision <= 6; precision++) {
+            QuantityFormatter formatter = FORMATTER.withPrecision(precision).withNotation(QuantityFormatter.Notation.SCIENTIFIC);
+            for (int i = 0; i < 20000; i++) {
+                double value = (1 + random.nextInt(1_000_000)) * Math.pow(10, random.nextInt(-40, 40));
+                BigDecimal rounded = new BigDecimal(value).round(new MathContext(precision + 1, RoundingMode.HALF_EVEN));
+                int exponent = rounded.precision() - rounded.scale() - 1;
+                String expected = rounded.movePointLeft(exponent).stripTrailingZeros().toPlainString() + "E" + exponent;
+                assertEquals(expected, formatter.formatTo(value, Unit.DIMENSIONLESS, null, new StringBuilder()).toString(),
+                        "value = " + value + ", precision = " + precision);}}}
+}
@@ -0,0 +1,40 @@
+package numeric_classes;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Reproducibility of the generator outputs.
+ */
+class QuantityGeneratorTest {
+    @Test
+    void bulkOutputsLeaveTheOneAtATimeStreamUntouched(){
+        double expected = new QuantityGenerator(7).nextValue(QuantityName.DISTANCE);
+        QuantityGenerator generator = new QuantityGenerator(7);
+        generator.generate(QuantityName.MASS, 100, false);
+        generator.stream(QuantityName.MASS, 100).count();
+        assertEquals(expected, generator.nextValue(QuantityName.DISTANCE), 0.0);}
+
+    @Test
+    void parallelOutputEqualsSequentialOutput(){
+        QuantityGenerator generator = new QuantityGenerator(42);
+        assertArrayEquals(generator.generate(QuantityName.DISTANCE, 20000, false).toValueArray(),
+                generator.generate(QuantityName.DISTANCE, 20000, true).toValueArray(), 0.0);
+        assertEquals(generator.stream(QuantityName.SPEED, 20000).map(Quantity::toString).collect(Collectors.toList()),
+                generator.stream(QuantityName.SPEED, 20000).parallel().map(Quantity::toString).collect(Collectors.toList()));}
+
+    @Test
+    void blocksAreNotShiftedCopiesOfEachOther(){
+        int block = 4096;
+        double[] values = new QuantityGenerator(42).generate(QuantityName.DISTANCE, 4 * block, false).toValueArray();
+        for (int other = 1; other < 4; other++) {
+            for (int shift = -4; shift <= 4; shift++) {
+                int equal = 0;
+                for (int i = Math.max(0, -shift); i < block && i + shift < block; i++) {
+                    if (values[i + shift] == values[other * block + i]) {equal++;}}
+                assertTrue(equal < 4, "block " + other + " repeats block 0 shifted by " + shift + " (" + equal + " values)");}}}
+}
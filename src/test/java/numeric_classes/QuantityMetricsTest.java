@@ -0,0 +1,60 @@
+package numeric_classes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Map;
+import javax.management.JMX;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Counters of QuantityMetrics; run with -Dnumeric_classes.metrics=true (see the surefire configuration).
+ */
+class QuantityMetricsTest {
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void reset() {QuantityMetrics.resetAll();}
+
+    private static long conflicts() {return QuantityMetrics.snapshot().getFailures(Quantity.Status.CONFLICTING_FAMILIES);}
+
+    @Test
+    void countsConversionsPerUnitPair(){
+        assertTrue(QuantityMetrics.ENABLED);
+        Quantity distance = Quantity.AsDistance(1000);
+        distance.convertUnitTo(Unit.KILOMETER);
+        BulkConversion.convert(new double[10], Unit.MILE, Unit.METER);
+        QuantityMetrics.Snapshot snapshot = QuantityMetrics.snapshot();
+        assertEquals(1, snapshot.getConversions(Unit.METER, Unit.KILOMETER));
+        assertEquals(10, snapshot.getBulkValues(Unit.MILE, Unit.METER));}
+
+    @Test
+    void countsFailuresOnEveryPath() throws Exception {
+        assertThrows(Quantity.ConflictingQuantityFamiliesException.class, () -> Quantity.AsDistance(1).convertUnitTo(Unit.KILOGRAM));
+        assertEquals(1, conflicts());
+
+        assertThrows(Quantity.ConflictingQuantityFamiliesException.class, () -> BulkConversion.convert(new double[1], Unit.METER, Unit.KILOGRAM));
+        assertEquals(2, conflicts());
+
+        QuantityArray array = new QuantityArray(false);
+        array.add(1, Unit.METER, QuantityName.DISTANCE);
+        assertThrows(Quantity.ConflictingQuantityFamiliesException.class, () -> array.convertUnitTo(Unit.KILOGRAM));
+        assertEquals(3, conflicts());
+
+        try (QuantityStore store = QuantityStore.create(directory.resolve("quantities.store"), false)) {
+            store.append(1, Unit.METER, QuantityName.DISTANCE);
+            assertThrows(Quantity.ConflictingQuantityFamiliesException.class, () -> store.convertUnitTo(Unit.KILOGRAM));}
+        assertEquals(4, conflicts());
+
+        Map<String, Long> failures = JMX.newMXBeanProxy(ManagementFactory.getPlatformMBeanServer(),
+                new ObjectName(QuantityMetrics.OBJECT_NAME), QuantityMetricsMXBean.class).getFailureCounts();
+        assertEquals(4L, failures.get("ConflictingQuantityFamiliesException"));
+        assertEquals(0L, failures.get("ImproperConvertionException"));}
+}
@@ -0,0 +1,85 @@
+package numeric_classes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Reopening, concurrent reads and in-place conversion of a QuantityStore.
+ */
+class QuantityStoreTest {
+    private static final long HEADER_SIZE = 64, RECORD_SIZE = 16;
+
+    @TempDir
+    Path directory;
+
+    private Path storeOf(int records) throws IOException {
+        Path path = directory.resolve("quantities.store");
+        try (QuantityStore store = QuantityStore.create(path, false)) {
+            for (int i = 0; i < records; i++) {store.append(i, Unit.METER, QuantityName.DISTANCE);}}
+        return path;}
+
+    @Test
+    void reopeningToReadDoesNotGrowTheFile() throws IOException {
+        Path path = storeOf(1000);
+        assertEquals(HEADER_SIZE + 1000 * RECORD_SIZE, Files.size(path));
+        try (QuantityStore store = QuantityStore.open(path)) {
+            double[] sum = {0};
+            store.scan((index, value, unit, name) -> sum[0] += value);
+            assertEquals(999 * 1000 / 2, sum[0], 0.0);
+            assertEquals(HEADER_SIZE + 1000 * RECORD_SIZE, Files.size(path));}}
+
+    @Test
+    void concurrentReadersSeeEveryRecord() throws Exception {
+        int records = 300_000;
+        try (QuantityStore store = QuantityStore.open(storeOf(records))) {
+            ExecutorService pool = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<?>> readers = new ArrayList<>();
+                for (int t = 0; t < 8; t++) {
+                    long seed = t;
+                    readers.add(pool.submit(() -> {
+                        SplittableRandom random = new SplittableRandom(seed);
+                        for (int i = 0; i < 100_000; i++) {
+                            int index = random.nextInt(records);
+                            assertEquals(index, store.getValue(index), 0.0);
+                            assertEquals(Unit.METER, store.getUnit(index));}}));}
+                for (Future<?> reader : readers) {reader.get();}}
+            finally {pool.shutdownNow();}}}
+
+    @Test
+    void convertsRangesInPlace() throws IOException {
+        Path path = storeOf(10);
+        try (QuantityStore store = QuantityStore.open(path)) {
+            store.append(20, Unit.CELSIUS, QuantityName.TEMPERATURE);
+            assertThrows(Quantity.ConflictingQuantityFamiliesException.class, () -> store.convertUnitTo(Unit.KILOMETER));
+            assertEquals(Unit.METER, store.getUnit(0));
+            store.convertUnitTo(0, 10, Unit.KILOMETER);}
+        try (QuantityStore store = QuantityStore.open(path)) {
+            assertEquals(11, store.size());
+            assertEquals(Unit.KILOMETER, store.getUnit(9));
+            assertEquals(0.009, store.getValue(9), 1e-15);
+            assertEquals(Unit.CELSIUS, store.getUnit(10));}}
+
+    @Test
+    void scalarsDoNotConvertBelowZero() throws IOException {
+        try (QuantityStore store = QuantityStore.create(directory.resolve("temperatures.store"), false)) {
+            store.append(20, Unit.CELSIUS, QuantityName.TEMPERATURE);
+            store.append(-300, Unit.CELSIUS, QuantityName.TEMPERATURE);
+            assertThrows(Quantity.NegativeScalarException.class, () -> store.convertUnitTo(Unit.KELVIN));
+            assertEquals(Unit.CELSIUS, store.getUnit(0));
+            assertEquals(20, store.getValue(0), 0.0);
+            store.convertUnitTo(0, 1, Unit.KELVIN);
+            assertEquals(293.15, store.getValue(0), 1e-9);}}
+}
@@ -0,0 +1,65 @@
+package numeric_classes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Dimensional arithmetic of Quantity (values, units and the names of derived
+ * results) and its non-throwing conversion.
+ */
+class QuantityTest {
+    private static void assertDerived(double value, Unit unit, QuantityName name, Quantity quantity){
+        assertEquals(value, quantity.getValue(), 1e-12 * Math.abs(value));
+        assertEquals(unit, quantity.getUnit());
+        assertEquals(name, quantity.getName());}
+
+    @Test
+    void multiply(){
+        assertDerived(6, Unit.SQUARE_METER, QuantityName.AREA, Quantity.AsSide(2).multiply(Quantity.AsSide(3)));
+        assertDerived(5, Unit.METER, QuantityName.LENGTH, Quantity.AsDistance(2.5).multiply(Quantity.AsFrictionConstant(2)));
+        assertDerived(20, Unit.METER, QuantityName.LENGTH, Quantity.AsSpeed(10).multiply(Quantity.AsTimeSpan(2)));
+        assertDerived(98.1, Unit.NEWTON, QuantityName.FORCE, Quantity.AsMass(10).multiply(Quantity.AsScalarGravity()));}
+
+    @Test
+    void divide(){
+        assertDerived(0.5, Unit.DIMENSIONLESS, QuantityName.RATIO, Quantity.AsDistance(1).divide(Quantity.AsSide(2)));
+        assertDerived(5, Unit.METER_PER_SECOND, QuantityName.SPEED, Quantity.AsDistance(10).divide(Quantity.AsTimeSpan(2)));
+        assertDerived(4, Unit.METER, QuantityName.LENGTH, Quantity.AsArea(8).divide(Quantity.AsSide(2)));
+        assertThrows(ArithmeticException.class, () -> Quantity.AsDistance(1).divide(Quantity.AsSide(0)));}
+
+    @Test
+    void pow(){
+        assertDerived(9, Unit.SQUARE_METER, QuantityName.AREA, Quantity.AsSide(3).pow(2));
+        assertDerived(8, Unit.CUBIC_METER, QuantityName.VOLUME, Quantity.AsSide(2).pow(3));
+        assertDerived(3, Unit.METER, QuantityName.LENGTH, Quantity.AsSide(3).pow(1));
+        assertDerived(1, Unit.DIMENSIONLESS, QuantityName.RATIO, Quantity.AsSide(3).pow(0));
+        assertThrows(ArithmeticException.class, () -> Quantity.AsSide(3).pow(-1));} // No family is an inverse length
+
+    @Test
+    void failedTryConvertLeavesTheQuantityUnchanged(){
+        Quantity distance = Quantity.AsDistance(12.5);
+        assertEquals(Quantity.Status.CONFLICTING_FAMILIES, distance.tryConvertUnitTo(Unit.KILOGRAM));
+        assertDerived(12.5, Unit.METER, QuantityName.DISTANCE, distance);
+
+        Quantity ratio = Quantity.AsFrictionConstant(0.3);
+        assertEquals(Quantity.Status.IMPROPER_CONVERSION, ratio.tryConvertUnitTo(Unit.PERCENTAGE));
+        assertDerived(0.3, Unit.DIMENSIONLESS, QuantityName.COEFFICIENT_OF_FRICTION, ratio);
+
+        Quantity temperature = new Quantity(-300, Unit.CELSIUS, QuantityName.TEMPERATURE, false);
+        assertEquals(Quantity.Status.NEGATIVE_SCALAR, temperature.tryConvertUnitTo(Unit.KELVIN));
+        assertDerived(-300, Unit.CELSIUS, QuantityName.TEMPERATURE, temperature);
+
+        assertEquals(Quantity.Status.OK, distance.tryConvertUnitTo(Unit.KILOMETER));
+        assertDerived(0.0125, Unit.KILOMETER, QuantityName.DISTANCE, distance);}
+
+    @Test
+    void exceptionsKeepTheirStackTraceByDefault(){
+        assertFalse(Quantity.STACKLESS_EXCEPTIONS);
+        RuntimeException thrown = assertThrows(Quantity.ConflictingQuantityFamiliesException.class,
+                () -> Quantity.AsDistance(1).convertUnitTo(Unit.KILOGRAM));
+        assertTrue(thrown.getStackTrace().length > 0);}
+}
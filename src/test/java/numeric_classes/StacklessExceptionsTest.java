@@ -0,0 +1,36 @@
+package numeric_classes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Quantity exceptions with -Dnumeric_classes.stacklessExceptions=true (see the surefire configuration).
+ */
+class StacklessExceptionsTest {
+    @Test
+    void exceptionsHaveNoStackTrace(){
+        assertTrue(Quantity.STACKLESS_EXCEPTIONS);
+        for (Quantity.Status status : Quantity.Status.values()) {
+            if (status == Quantity.Status.OK) {continue;}
+            RuntimeException exception = status.toException();
+            assertEquals(0, exception.getStackTrace().length, status.name());
+            assertEquals(0, exception.getSuppressed().length, status.name());}
+
+        RuntimeException thrown = assertThrows(Quantity.ConflictingQuantityFamiliesException.class,
+                () -> Quantity.AsDistance(1).convertUnitTo(Unit.KILOGRAM));
+        assertEquals(0, thrown.getStackTrace().length);
+        assertEquals(0, assertThrows(Quantity.NegativeScalarException.class, () -> Quantity.AsDistance(1).setValue(-1)).getStackTrace().length);}
+
+    /** Each throw has its own instance, so what a caller suppresses into one never reaches the next. */
+    @Test
+    void exceptionsAreNotShared(){
+        RuntimeException first = Quantity.Status.NEGATIVE_SCALAR.toException();
+        first.addSuppressed(new IllegalStateException());
+        RuntimeException second = Quantity.Status.NEGATIVE_SCALAR.toException();
+        assertNotSame(first, second);
+        assertEquals(0, second.getSuppressed().length);}
+}
@@ -0,0 +1,38 @@
+package numeric_classes;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The cached converters of the temperature scales, on the points that define them.
+ */
+class UnitConverterTest {
+    @Test
+    void celsiusAndFahrenheitMeetOnTheirFixedPoints(){
+        UnitConverter toFahrenheit = Unit.CELSIUS.converterTo(Unit.FAHRENHEIT), toCelsius = Unit.FAHRENHEIT.converterTo(Unit.CELSIUS);
+        assertEquals(32.0, toFahrenheit.convert(0), 0.0);
+        assertEquals(212.0, toFahrenheit.convert(100), 0.0);
+        assertEquals(-40.0, toFahrenheit.convert(-40), 0.0);
+        assertEquals(0.0, toCelsius.convert(32), 0.0);
+        assertEquals(100.0, toCelsius.convert(212), 0.0);
+        assertEquals(-40.0, toCelsius.convert(-40), 0.0);}
+
+    @Test
+    void kelvinToFahrenheit(){
+        assertEquals(-459.67, Unit.KELVIN.converterTo(Unit.FAHRENHEIT).convert(0), 0.0);
+        assertEquals(32.0, Unit.KELVIN.converterTo(Unit.FAHRENHEIT).convert(273.15), 1e-12);}
+
+    @Test
+    void bulkAndQuantityPathsAgree(){
+        double[] values = {0, 100, -40};
+        BulkConversion.convert(values, Unit.CELSIUS, Unit.FAHRENHEIT);
+        assertArrayEquals(new double[] {32, 212, -40}, values, 0.0);
+        BulkConversion.convert(values, Unit.FAHRENHEIT, Unit.CELSIUS);
+        assertArrayEquals(new double[] {0, 100, -40}, values, 0.0);
+
+        Quantity temperature = new Quantity(100, Unit.CELSIUS, QuantityName.TEMPERATURE, false);
+        temperature.convertUnitTo(Unit.FAHRENHEIT);
+        assertEquals(212.0, temperature.getValue(), 0.0);}
+}
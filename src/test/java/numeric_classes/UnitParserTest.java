@@ -0,0 +1,95 @@
+package numeric_classes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Numbers against Double.parseDouble, longest unit matches and ambiguous units.
+ */
+class UnitParserTest {
+    private static final UnitParser PARSER = new UnitParser(), PORTUGUESE = new UnitParser(',');
+
+    private static String randomNumber(SplittableRandom random){
+        StringBuilder number = new StringBuilder();
+        if (random.nextInt(4) == 0) {number.append(random.nextBoolean() ? '-' : '+');}
+        int integerDigits = random.nextInt(1, 22);
+        for (int i = 0; i < integerDigits; i++) {number.append((char) ('0' + random.nextInt(10)));}
+        if (random.nextBoolean()) {
+            number.append('.');
+            int fractionDigits = random.nextInt(1, 22);
+            for (int i = 0; i < fractionDigits; i++) {number.append((char) ('0' + random.nextInt(10)));}}
+        if (random.nextInt(3) == 0) {number.append(random.nextBoolean() ? 'e' : 'E').append(random.nextInt(-40, 40));}
+        return number.toString();}
+
+    @Test
+    void numbersMatchDoubleParseDouble(){
+        SplittableRandom random = new SplittableRandom(4);
+        UnitParser.Match match = new UnitParser.Match();
+        for (int i = 0; i < 200000; i++) {
+            String number = randomNumber(random);
+            double expected = Double.parseDouble(number);
+            assertTrue(PARSER.parseValue(number, 0, number.length(), match), number);
+            assertEquals(expected, match.getValue(), 0.0, number);
+
+            String portuguese = number.replace('.', ',');
+            assertTrue(PORTUGUESE.parseValue(portuguese, 0, portuguese.length(), match), portuguese);
+            assertEquals(expected, match.getValue(), 0.0, portuguese);}}
+
+    @Test
+    void numbersAtTheEdgesOfTheFastPath(){
+        UnitParser.Match match = new UnitParser.Match();
+        for (String number : new String[] {"9007199254740993", "9007199254740992.5", "123456789012345678901234567890",
+                "1e22", "1e23", "0.1", "1e-22", "1e-23", "4.9e-324", "1.7976931348623157e308", "0", "-0", "0.000000000000000000001"}) {
+            assertTrue(PARSER.parseValue(number, 0, number.length(), match), number);
+            assertEquals(Double.parseDouble(number), match.getValue(), 0.0, number);}
+        assertFalse(PARSER.parseValue("1.2.3", 0, 5, match));
+        assertFalse(PARSER.parseValue("", 0, 0, match));}
+
+    @Test
+    void decimalCommaSeparatesTheFraction(){
+        UnitParser.Match match = new UnitParser.Match();
+        String text = "a pista tem 12,5 km e 3 voltas";
+        assertEquals(19, PORTUGUESE.find(text, 0, text.length(), match));
+        assertEquals(12.5, match.getValue(), 0.0);
+        assertEquals(Unit.KILOMETER, match.getUnit());
+        assertEquals(12, match.getStart());
+        assertEquals(-1, PARSER.find("12,5", 0, 4, match));}
+
+    @Test
+    void unitsTakeTheLongestMatch(){
+        UnitParser.Match match = new UnitParser.Match();
+        String[] texts = {"5 m/s²", "5 m/s", "5 m", "5 mi", "5 min", "5m/s"};
+        Unit[] units = {Unit.METER_PER_SECOND_SQUARED, Unit.METER_PER_SECOND, Unit.METER, Unit.MILE, Unit.MINUTE, Unit.METER_PER_SECOND};
+        for (int i = 0; i < texts.length; i++) {
+            assertTrue(PARSER.parse(texts[i], 0, texts[i].length(), match), texts[i]);
+            assertEquals(units[i], match.getUnit(), texts[i]);
+            assertEquals(texts[i].length(), match.getEnd(), texts[i]);}
+        assertFalse(PARSER.parse("5 mix", 0, 5, match)); // The unit runs into a letter
+        assertEquals(Unit.KILOMETER_PER_HOUR, UnitParser.lookup("kilometer per hour"));
+        assertNull(UnitParser.lookup("mx"));}
+
+    @Test
+    void ambiguousUnitsAndHints(){
+        UnitParser.Match match = new UnitParser.Match();
+        assertTrue(PARSER.parse("3 g", 0, 3, match));
+        assertEquals(Unit.GRAM, match.getUnit());
+        assertTrue(match.isAmbiguous());
+        assertEquals(2, match.getCandidateCount());
+        assertEquals(Unit.G, match.getCandidate(1));
+        assertTrue(PARSER.parse("3 g", 0, 3, QuantityFamily.ACCELERATION, match));
+        assertEquals(Unit.G, match.getUnit());
+        assertEquals(Unit.G, UnitParser.lookup("g", 0, 1, QuantityFamily.ACCELERATION));
+
+        assertEquals(Unit.KNOT_EN, UnitParser.lookup("knot"));
+        assertTrue(PARSER.parse("12 knot", 0, 7, match));
+        assertTrue(match.isAmbiguous());
+        assertEquals(Unit.KNOT_PT, UnitParser.lookup("nó"));
+
+        assertTrue(PARSER.parse("3 kg", 0, 4, match));
+        assertFalse(match.isAmbiguous());}
+}
@@ -0,0 +1,23 @@
+package numeric_classes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Conversion factors to the SI unit of the family, against their defining values.
+ */
+class UnitTest {
+    @Test
+    void astronomicLengths(){
+        assertEquals(1.495978707e11, Unit.ASTRO_UNIT.getConversionFactor(), 0.0);
+        assertEquals(299792458.0 * 86400 * 365.25, Unit.LIGHT_YEAR.getConversionFactor(), 1e3);
+        assertEquals(1.495978707e11 * 648000 / Math.PI, Unit.PARSEC.getConversionFactor(), 1e4);
+        assertEquals(206264.806, Unit.factor(Unit.PARSEC, Unit.ASTRO_UNIT), 1e-3);}
+
+    @Test
+    void massAndSpeed(){
+        assertEquals(0.028349523125, Unit.OUNCE.getConversionFactor(), 0.0);
+        assertEquals(16, Unit.factor(Unit.POUND, Unit.OUNCE), 1e-4);
+        assertEquals(343, Unit.MACH.getConversionFactor(), 0.0);}
+}